@@ -0,0 +1,101 @@
+package de.hhu.stups.bsynthesis.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A single benchmark of the suite's manifest. Each line of the manifest describes one benchmark
+ * by its id, the machine and examples file relative to the manifest, the synthesis type, the
+ * operation's name, the exact library components and the solver timeouts in milliseconds for the
+ * exact and the default library configuration, all separated by ';'.
+ */
+final class BenchmarkCase {
+
+  private static final int COLUMNS = 8;
+
+  private final String id;
+  private final Path machine;
+  private final Path examples;
+  private final String synthesisType;
+  private final String operation;
+  private final String exactLibrary;
+  private final int exactSolverTimeOut;
+  private final int defaultSolverTimeOut;
+
+  private BenchmarkCase(final String id,
+                        final Path machine,
+                        final Path examples,
+                        final String synthesisType,
+                        final String operation,
+                        final String exactLibrary,
+                        final int exactSolverTimeOut,
+                        final int defaultSolverTimeOut) {
+    this.id = id;
+    this.machine = machine;
+    this.examples = examples;
+    this.synthesisType = synthesisType;
+    this.operation = operation;
+    this.exactLibrary = exactLibrary;
+    this.exactSolverTimeOut = exactSolverTimeOut;
+    this.defaultSolverTimeOut = defaultSolverTimeOut;
+  }
+
+  /**
+   * Read all benchmarks from the given manifest ignoring empty lines and comments starting with
+   * '#'.
+   */
+  static List<BenchmarkCase> readManifest(final Path manifest) throws IOException {
+    final Path directory = manifest.toAbsolutePath().getParent();
+    final List<BenchmarkCase> benchmarkCases = new ArrayList<>();
+    for (final String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+      if (line.trim().isEmpty() || line.trim().startsWith("#")) {
+        continue;
+      }
+      final String[] columns = line.split(";");
+      if (columns.length != COLUMNS) {
+        throw new IOException("Malformed benchmark in " + manifest + ": " + line);
+      }
+      benchmarkCases.add(new BenchmarkCase(columns[0].trim(),
+          directory.resolve(columns[1].trim()), directory.resolve(columns[2].trim()),
+          columns[3].trim(), columns[4].trim(), columns[5].trim(),
+          Integer.parseInt(columns[6].trim()), Integer.parseInt(columns[7].trim())));
+    }
+    return benchmarkCases;
+  }
+
+  String getId() {
+    return id;
+  }
+
+  Path getMachine() {
+    return machine;
+  }
+
+  Path getExamples() {
+    return examples;
+  }
+
+  String getSynthesisType() {
+    return synthesisType;
+  }
+
+  String getOperation() {
+    return operation;
+  }
+
+  String getExactLibrary() {
+    return exactLibrary;
+  }
+
+  int getExactSolverTimeOut() {
+    return exactSolverTimeOut;
+  }
+
+  int getDefaultSolverTimeOut() {
+    return defaultSolverTimeOut;
+  }
+}
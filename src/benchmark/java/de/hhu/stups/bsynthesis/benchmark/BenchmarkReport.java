@@ -0,0 +1,60 @@
+package de.hhu.stups.bsynthesis.benchmark;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Write the {@link BenchmarkResult results} of a benchmark run to a .csv and a .json file. All
+ * durations are given in seconds like in the README's benchmark table.
+ */
+final class BenchmarkReport {
+
+  private BenchmarkReport() {
+  }
+
+  static void writeCsv(final Path path, final List<BenchmarkResult> results) throws IOException {
+    try (final PrintWriter writer =
+             new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8))) {
+      writer.println("id,configuration,runs,solved,timeouts,failures,mean,p50,p95");
+      results.forEach(result -> writer.println(String.join(",", result.getId(),
+          result.getConfiguration(), String.valueOf(result.getRuns()),
+          String.valueOf(result.getSolved()), String.valueOf(result.getTimeOuts()),
+          String.valueOf(result.getFailures()), toSeconds(result.getMean()),
+          toSeconds(result.getPercentile(50)), toSeconds(result.getPercentile(95)))));
+    }
+  }
+
+  static void writeJson(final Path path, final List<BenchmarkResult> results) throws IOException {
+    try (final PrintWriter writer =
+             new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8))) {
+      writer.println("[");
+      for (int i = 0; i < results.size(); i++) {
+        final BenchmarkResult result = results.get(i);
+        writer.print("  {\"id\": \"" + result.getId() + "\", "
+            + "\"configuration\": \"" + result.getConfiguration() + "\", "
+            + "\"runs\": " + result.getRuns() + ", "
+            + "\"solved\": " + result.getSolved() + ", "
+            + "\"timeouts\": " + result.getTimeOuts() + ", "
+            + "\"failures\": " + result.getFailures() + ", "
+            + "\"mean\": " + toJsonSeconds(result.getMean()) + ", "
+            + "\"p50\": " + toJsonSeconds(result.getPercentile(50)) + ", "
+            + "\"p95\": " + toJsonSeconds(result.getPercentile(95)) + "}");
+        writer.println(i < results.size() - 1 ? "," : "");
+      }
+      writer.println("]");
+    }
+  }
+
+  private static String toSeconds(final double millis) {
+    return millis < 0 ? "" : String.format(Locale.ROOT, "%.3f", millis / 1000);
+  }
+
+  private static String toJsonSeconds(final double millis) {
+    return millis < 0 ? "null" : toSeconds(millis);
+  }
+}
@@ -0,0 +1,81 @@
+package de.hhu.stups.bsynthesis.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The measured runs of a single benchmark using either the exact or the default library
+ * configuration. Only successful runs are considered for the mean and the percentiles, runs
+ * exceeding the timeout and runs without a solution are counted separately.
+ */
+final class BenchmarkResult {
+
+  private final String id;
+  private final String configuration;
+  private final List<Long> durations = new ArrayList<>();
+  private int timeOuts;
+  private int failures;
+
+  BenchmarkResult(final String id, final String configuration) {
+    this.id = id;
+    this.configuration = configuration;
+  }
+
+  void addDuration(final long durationMillis) {
+    durations.add(durationMillis);
+  }
+
+  void addTimeOut() {
+    timeOuts++;
+  }
+
+  void addFailure() {
+    failures++;
+  }
+
+  String getId() {
+    return id;
+  }
+
+  String getConfiguration() {
+    return configuration;
+  }
+
+  int getRuns() {
+    return durations.size() + timeOuts + failures;
+  }
+
+  int getSolved() {
+    return durations.size();
+  }
+
+  int getTimeOuts() {
+    return timeOuts;
+  }
+
+  int getFailures() {
+    return failures;
+  }
+
+  /**
+   * The mean duration of all successful runs in milliseconds or -1 if there are none.
+   */
+  double getMean() {
+    return durations.stream().mapToLong(Long::longValue).average().orElse(-1);
+  }
+
+  /**
+   * The given percentile of the successful runs' durations using the nearest-rank method or -1 if
+   * there are no successful runs.
+   */
+  long getPercentile(final int percentile) {
+    if (durations.isEmpty()) {
+      return -1;
+    }
+    final List<Long> sortedDurations = new ArrayList<>(durations);
+    Collections.sort(sortedDurations);
+    final int rank = (int) Math.ceil(percentile / 100.0 * sortedDurations.size());
+    return sortedDurations.get(Math.max(0, rank - 1));
+  }
+}
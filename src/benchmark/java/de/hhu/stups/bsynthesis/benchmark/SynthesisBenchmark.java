@@ -0,0 +1,176 @@
+package de.hhu.stups.bsynthesis.benchmark;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+import de.hhu.stups.bsynthesis.injector.BSynthesisBatchModule;
+import de.hhu.stups.bsynthesis.prob.ExamplesFromFile;
+import de.hhu.stups.bsynthesis.prob.StartSynthesisCommand;
+import de.hhu.stups.bsynthesis.services.HeadlessSynthesis;
+import de.hhu.stups.bsynthesis.services.HeadlessSynthesisResult;
+import de.hhu.stups.bsynthesis.services.SolverBackend;
+import de.hhu.stups.bsynthesis.ui.components.library.BLibrary;
+import de.prob.cli.ProBInstanceProvider;
+import de.prob.statespace.StateSpace;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Run the benchmarks of the README's synthesis table using {@link HeadlessSynthesis}. Each
+ * benchmark of the manifest is run several times using its exact library components as well as
+ * the default library configuration and the results are written to benchmark.csv and
+ * benchmark.json in the output directory. Usage:
+ *
+ * <pre>
+ * [--manifest FILE] [--output DIRECTORY] [--repetitions N] [--timeout MILLIS]
+ * [--only ID,...] [--configurations exact,default] [--parallel]
+ * </pre>
+ *
+ * <p>Like in the README, the default library configuration is run on a single instance unless
+ * --parallel is given.</p>
+ */
+public final class SynthesisBenchmark {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SynthesisBenchmark.class);
+  private static final String EXACT = "exact";
+  private static final String DEFAULT = "default";
+  private static final String DEFAULT_MANIFEST = "src/benchmark/suite/benchmarks.csv";
+  private static final String DEFAULT_OUTPUT = "build/benchmark";
+  private static final int DEFAULT_REPETITIONS = 10;
+  private static final long DEFAULT_TIME_OUT = 600000;
+
+  private SynthesisBenchmark() {
+  }
+
+  /**
+   * Run the benchmarks and write the report.
+   */
+  public static void main(final String... args) throws IOException {
+    System.setProperty("logback.configurationFile", "config/logging.xml");
+    final Map<String, String> arguments = parseArguments(args);
+    final List<BenchmarkCase> benchmarkCases = BenchmarkCase.readManifest(
+        Paths.get(arguments.getOrDefault("manifest", DEFAULT_MANIFEST)));
+    final Set<String> selectedIds = arguments.containsKey("only")
+        ? new HashSet<>(Arrays.asList(arguments.get("only").split(","))) : null;
+    final List<String> configurations =
+        Arrays.asList(arguments.getOrDefault("configurations", EXACT + "," + DEFAULT).split(","));
+    final int repetitions = Integer.parseInt(
+        arguments.getOrDefault("repetitions", String.valueOf(DEFAULT_REPETITIONS)));
+    final long timeOut =
+        Long.parseLong(arguments.getOrDefault("timeout", String.valueOf(DEFAULT_TIME_OUT)));
+    final boolean parallel = arguments.containsKey("parallel");
+
+    final Injector injector = Guice.createInjector(new BSynthesisBatchModule());
+    final HeadlessSynthesis headlessSynthesis = injector.getInstance(HeadlessSynthesis.class);
+    // each repetition has to run synthesis instead of using the result of the first one
+    headlessSynthesis.setUseResultCache(false);
+    final List<BenchmarkResult> results = new ArrayList<>();
+    try {
+      for (final BenchmarkCase benchmarkCase : benchmarkCases.stream()
+          .filter(benchmarkCase -> selectedIds == null
+              || selectedIds.contains(benchmarkCase.getId()))
+          .collect(Collectors.toList())) {
+        final StateSpace stateSpace =
+            headlessSynthesis.loadMachine(benchmarkCase.getMachine().toFile());
+        if (stateSpace == null) {
+          LOGGER.error("Skipping benchmark {}, the machine could not be loaded.",
+              benchmarkCase.getId());
+          continue;
+        }
+        final ExamplesFromFile examples =
+            ExamplesFromFile.read(benchmarkCase.getExamples(), stateSpace);
+        for (final String configuration : configurations) {
+          headlessSynthesis.setUseSingleThread(DEFAULT.equals(configuration) && !parallel);
+          results.add(runBenchmark(headlessSynthesis, benchmarkCase, examples, configuration,
+              repetitions, timeOut));
+        }
+      }
+    } finally {
+      headlessSynthesis.shutdown();
+      injector.getInstance(ProBInstanceProvider.class).shutdownAll();
+    }
+
+    final Path outputDirectory = Paths.get(arguments.getOrDefault("output", DEFAULT_OUTPUT));
+    Files.createDirectories(outputDirectory);
+    BenchmarkReport.writeCsv(outputDirectory.resolve("benchmark.csv"), results);
+    BenchmarkReport.writeJson(outputDirectory.resolve("benchmark.json"), results);
+    LOGGER.info("Wrote benchmark report to {}.", outputDirectory.toAbsolutePath());
+    System.exit(0);
+  }
+
+  private static BenchmarkResult runBenchmark(final HeadlessSynthesis headlessSynthesis,
+                                              final BenchmarkCase benchmarkCase,
+                                              final ExamplesFromFile examples,
+                                              final String configuration,
+                                              final int repetitions,
+                                              final long timeOut) {
+    final BenchmarkResult benchmarkResult =
+        new BenchmarkResult(benchmarkCase.getId(), configuration);
+    for (int run = 1; run <= repetitions; run++) {
+      final HeadlessSynthesisResult result = headlessSynthesis.synthesize(
+          getStartSynthesisCommand(benchmarkCase, examples, configuration), timeOut);
+      LOGGER.info("Benchmark {} ({}), run {}/{}: {} after {} ms.", benchmarkCase.getId(),
+          configuration, run, repetitions, result.getStatus(), result.getDurationMillis());
+      switch (result.getStatus()) {
+        case SOLUTION:
+        case BEHAVIOR_SATISFIED:
+          benchmarkResult.addDuration(result.getDurationMillis());
+          break;
+        case TIMEOUT:
+          benchmarkResult.addTimeOut();
+          break;
+        default:
+          benchmarkResult.addFailure();
+          break;
+      }
+    }
+    return benchmarkResult;
+  }
+
+  /**
+   * Create a new command for each run since the command's library is expanded during synthesis.
+   */
+  private static StartSynthesisCommand getStartSynthesisCommand(
+      final BenchmarkCase benchmarkCase,
+      final ExamplesFromFile examples,
+      final String configuration) {
+    final boolean isExact = EXACT.equals(configuration);
+    final BLibrary library =
+        HeadlessSynthesis.getLibrary(isExact ? benchmarkCase.getExactLibrary() : DEFAULT);
+    library.solverTimeOutProperty().set(isExact
+        ? benchmarkCase.getExactSolverTimeOut() : benchmarkCase.getDefaultSolverTimeOut());
+    return new StartSynthesisCommand(library, benchmarkCase.getOperation(),
+        examples.getVariableNames(),
+        HeadlessSynthesis.getSynthesisType(benchmarkCase.getSynthesisType(), examples),
+        examples, SolverBackend.PROB);
+  }
+
+  private static Map<String, String> parseArguments(final String... args) {
+    final Map<String, String> arguments = new HashMap<>();
+    for (int i = 0; i < args.length; i++) {
+      final String key = args[i].replaceFirst("^--", "");
+      if ("parallel".equals(key)) {
+        arguments.put(key, "true");
+      } else if (i + 1 < args.length) {
+        arguments.put(key, args[++i]);
+      } else {
+        throw new IllegalArgumentException("Missing value for argument " + args[i] + ".");
+      }
+    }
+    return arguments;
+  }
+}
@@ -0,0 +1,154 @@
+package de.hhu.stups.bsynthesis;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+import de.hhu.stups.bsynthesis.injector.BSynthesisBatchModule;
+import de.hhu.stups.bsynthesis.prob.DistinguishingExample;
+import de.hhu.stups.bsynthesis.prob.ExamplesFromFile;
+import de.hhu.stups.bsynthesis.prob.StartSynthesisCommand;
+import de.hhu.stups.bsynthesis.services.HeadlessSynthesis;
+import de.hhu.stups.bsynthesis.services.HeadlessSynthesisResult;
+import de.hhu.stups.bsynthesis.services.SolverBackend;
+import de.hhu.stups.bsynthesis.ui.SynthesisType;
+import de.hhu.stups.bsynthesis.ui.components.library.BLibrary;
+import de.prob.cli.ProBInstanceProvider;
+import de.prob.statespace.StateSpace;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Run synthesis from the command line without the user interface, e.g., for benchmarks or
+ * continuous integration. The examples are read from a file as described in
+ * {@link ExamplesFromFile}. Usage:
+ *
+ * <pre>
+ * --machine FILE --examples FILE [--operation NAME] [--type guard|invariant|action]
+ * [--backend proB|z3|portfolio] [--library default[:LEVEL]|NAME[*AMOUNT],...]
+ * [--timeout MILLIS] [--solver-timeout MILLIS] [--single-thread]
+ * </pre>
+ *
+ * <p>The process exits with 0 if a solution has been found, with 2 if a distinguishing example has
+ * been found and with 1 otherwise.</p>
+ */
+public final class BSynthesisBatch {
+
+  private static final int EXIT_SOLUTION = 0;
+  private static final int EXIT_FAILURE = 1;
+  private static final int EXIT_DISTINGUISHING_EXAMPLE = 2;
+  private static final long DEFAULT_TIME_OUT = 600000;
+  private static final int DEFAULT_SOLVER_TIME_OUT = 2500;
+
+  private BSynthesisBatch() {
+  }
+
+  /**
+   * Parse the arguments, run synthesis and exit with the corresponding status code.
+   */
+  public static void main(final String... args) {
+    System.setProperty("logback.configurationFile", "config/logging.xml");
+    final Map<String, String> arguments;
+    try {
+      arguments = parseArguments(args);
+    } catch (final IllegalArgumentException illegalArgumentException) {
+      System.err.println(illegalArgumentException.getMessage());
+      System.exit(EXIT_FAILURE);
+      return;
+    }
+    final Injector injector = Guice.createInjector(new BSynthesisBatchModule());
+    int exitCode = EXIT_FAILURE;
+    try {
+      exitCode = run(injector.getInstance(HeadlessSynthesis.class), arguments);
+    } catch (final IllegalArgumentException | IOException exception) {
+      System.err.println(exception.getMessage());
+    } finally {
+      injector.getInstance(HeadlessSynthesis.class).shutdown();
+      injector.getInstance(ProBInstanceProvider.class).shutdownAll();
+    }
+    System.exit(exitCode);
+  }
+
+  private static int run(final HeadlessSynthesis headlessSynthesis,
+                         final Map<String, String> arguments) throws IOException {
+    final File machineFile = new File(getRequired(arguments, "machine"));
+    final StateSpace stateSpace = headlessSynthesis.loadMachine(machineFile);
+    if (stateSpace == null) {
+      throw new IOException("The machine " + machineFile + " could not be loaded.");
+    }
+    final ExamplesFromFile examples =
+        ExamplesFromFile.read(Paths.get(getRequired(arguments, "examples")), stateSpace);
+    final SynthesisType synthesisType =
+        HeadlessSynthesis.getSynthesisType(arguments.get("type"), examples);
+    final String backend = arguments.getOrDefault("backend", "proB");
+    headlessSynthesis.setUsePortfolio("portfolio".equalsIgnoreCase(backend));
+    headlessSynthesis.setUseSingleThread(arguments.containsKey("single-thread"));
+    final BLibrary library = HeadlessSynthesis.getLibrary(
+        arguments.getOrDefault("library", "default"));
+    library.solverTimeOutProperty().set(Integer.parseInt(
+        arguments.getOrDefault("solver-timeout", String.valueOf(DEFAULT_SOLVER_TIME_OUT))));
+    final StartSynthesisCommand startSynthesisCommand = new StartSynthesisCommand(library,
+        arguments.getOrDefault("operation", "none"), examples.getVariableNames(), synthesisType,
+        examples, "z3".equalsIgnoreCase(backend) ? SolverBackend.Z3 : SolverBackend.PROB);
+    final long timeOut =
+        Long.parseLong(arguments.getOrDefault("timeout", String.valueOf(DEFAULT_TIME_OUT)));
+    final HeadlessSynthesisResult result =
+        headlessSynthesis.synthesize(startSynthesisCommand, timeOut);
+    System.err.println("Synthesis finished with status " + result.getStatus() + " after "
+        + result.getDurationMillis() + " ms.");
+    switch (result.getStatus()) {
+      case SOLUTION:
+        System.out.println(result.getModifiedMachineCode());
+        return EXIT_SOLUTION;
+      case BEHAVIOR_SATISFIED:
+        System.out.println("Operation " + result.getSatisfyingOperation()
+            + " already satisfies the desired behavior.");
+        return EXIT_SOLUTION;
+      case DISTINGUISHING_EXAMPLE:
+        printDistinguishingExample(result.getDistinguishingExample());
+        return EXIT_DISTINGUISHING_EXAMPLE;
+      default:
+        return EXIT_FAILURE;
+    }
+  }
+
+  private static Map<String, String> parseArguments(final String... args) {
+    final Map<String, String> arguments = new HashMap<>();
+    for (int i = 0; i < args.length; i++) {
+      if (!args[i].startsWith("--")) {
+        throw new IllegalArgumentException("Unexpected argument " + args[i] + ".");
+      }
+      final String key = args[i].substring(2);
+      if ("single-thread".equals(key)) {
+        arguments.put(key, "true");
+        continue;
+      }
+      if (i + 1 >= args.length) {
+        throw new IllegalArgumentException("Missing value for argument " + args[i] + ".");
+      }
+      arguments.put(key, args[++i]);
+    }
+    return arguments;
+  }
+
+  private static String getRequired(final Map<String, String> arguments, final String key) {
+    final String value = arguments.get(key);
+    if (value == null) {
+      throw new IllegalArgumentException("Missing required argument --" + key + ".");
+    }
+    return value;
+  }
+
+  private static void printDistinguishingExample(
+      final DistinguishingExample distinguishingExample) {
+    if (distinguishingExample.getOutputTuples().isEmpty()) {
+      System.out.println(distinguishingExample.getInputStateEquality());
+      return;
+    }
+    System.out.println(distinguishingExample.getInputStateEquality() + " =>> "
+        + distinguishingExample.getOutputStateEquality());
+  }
+}
@@ -0,0 +1,34 @@
+package de.hhu.stups.bsynthesis.injector;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.assistedinject.FactoryModuleBuilder;
+
+import de.hhu.stups.bsynthesis.services.HeadlessSynthesis;
+import de.hhu.stups.bsynthesis.services.ProBApiService;
+import de.hhu.stups.bsynthesis.services.UiService;
+import de.hhu.stups.bsynthesis.ui.components.factories.NodeContextMenuFactory;
+import de.hhu.stups.bsynthesis.ui.components.factories.StateNodeFactory;
+import de.hhu.stups.bsynthesis.ui.components.factories.TransitionNodeFactory;
+import de.hhu.stups.bsynthesis.ui.components.factories.ValidationContextMenuFactory;
+import de.prob.MainModule;
+
+/**
+ * The module used by {@link de.hhu.stups.bsynthesis.BSynthesisBatch} which only binds the services
+ * needed to run synthesis without any user interface.
+ */
+public class BSynthesisBatchModule extends AbstractModule {
+
+  @Override
+  protected void configure() {
+    install(new MainModule());
+
+    bind(UiService.class);
+    bind(ProBApiService.class);
+    bind(HeadlessSynthesis.class);
+
+    install(new FactoryModuleBuilder().build(StateNodeFactory.class));
+    install(new FactoryModuleBuilder().build(TransitionNodeFactory.class));
+    install(new FactoryModuleBuilder().build(ValidationContextMenuFactory.class));
+    install(new FactoryModuleBuilder().build(NodeContextMenuFactory.class));
+  }
+}
@@ -0,0 +1,52 @@
+package de.hhu.stups.bsynthesis.prob;
+
+import java.io.Serializable;
+
+/**
+ * The result of a successful synthesis run that can be stored in a cache and persisted to disk:
+ * either the modified machine code or the name of an operation that already satisfies the
+ * behavior. Distinguishing examples are not cached since they suspend a synthesis context of a
+ * specific statespace.
+ */
+public final class CachedSynthesisResult implements Serializable {
+
+  private static final long serialVersionUID = 2L;
+
+  public enum Kind {
+    MACHINE_CODE, BEHAVIOR_SATISFIED
+  }
+
+  private final Kind kind;
+  private final String value;
+  private final long creationTime;
+
+  private CachedSynthesisResult(final Kind kind,
+                                final String value) {
+    this.kind = kind;
+    this.value = value;
+    creationTime = System.currentTimeMillis();
+  }
+
+  public static CachedSynthesisResult ofMachineCode(final String machineCode) {
+    return new CachedSynthesisResult(Kind.MACHINE_CODE, machineCode);
+  }
+
+  public static CachedSynthesisResult ofBehaviorSatisfied(final String operationName) {
+    return new CachedSynthesisResult(Kind.BEHAVIOR_SATISFIED, operationName);
+  }
+
+  public Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * The modified machine code or the name of the operation that satisfies the behavior.
+   */
+  public String getValue() {
+    return value;
+  }
+
+  public long getCreationTime() {
+    return creationTime;
+  }
+}
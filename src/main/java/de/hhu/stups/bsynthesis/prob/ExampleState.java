@@ -1,59 +1,61 @@
 package de.hhu.stups.bsynthesis.prob;
 
-import de.be4.classicalb.core.parser.ClassicalBParser;
 import de.prob.animator.domainobjects.EvalResult;
 import de.prob.parserbase.ProBParseException;
-import de.prob.parserbase.ProBParserBaseAdapter;
 import de.prob.prolog.output.IPrologTermOutput;
 import de.prob.statespace.State;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /**
  * A class representing a single example state either input or output. Using {@link
  * #printStateToPrologTerm(IPrologTermOutput)} we are able to print the current state as a prolog
- * list to a given {@link IPrologTermOutput}.
+ * list to a given {@link IPrologTermOutput}. Only the values of the current machine variables are
+ * kept, sorted by the variable names, and example states are equal if these values are equal
+ * regardless of the {@link State} they have been created from.
  */
 class ExampleState {
 
   private final Logger logger = LoggerFactory.getLogger(getClass());
   private final State state;
-  private final ProBParserBaseAdapter parserBaseAdapter =
-      new ProBParserBaseAdapter(new ClassicalBParser());
-  private final HashMap<String, String> stateMap = new HashMap<>();
-  private final Set<String> currentMachineVars;
+  private final Map<String, String> values;
+  private final int hashCode;
 
   ExampleState(final State state, final Set<String> currentMachineVars) {
     this.state = state;
-    this.currentMachineVars = currentMachineVars;
-    if (state == null) {
-      return;
+    final Map<String, String> stateValues = new TreeMap<>();
+    if (state != null) {
+      state.getValues().forEach((evalElement, abstractEvalResult) -> {
+        if (currentMachineVars.contains(evalElement.getCode())) {
+          stateValues.put(evalElement.getCode(), ((EvalResult) abstractEvalResult).getValue());
+        }
+      });
     }
-    state.getValues().forEach((evalElement, abstractEvalResult) ->
-        stateMap.put(evalElement.getCode(), ((EvalResult) abstractEvalResult).getValue()));
+    values = Collections.unmodifiableMap(stateValues);
+    hashCode = values.hashCode();
   }
 
   /**
    * Print a list of tuples of machine variable name and parsed value to the given
-   * {@link IPrologTermOutput}.
+   * {@link IPrologTermOutput}. The values are parsed only once using the {@link ParsedValueCache}.
    */
   void printStateToPrologTerm(final IPrologTermOutput prologTerm) {
     prologTerm.openList();
-    stateMap.forEach((key, value) -> {
-      if (currentMachineVars.contains(key)) {
-        prologTerm.openTerm(",").printAtom(key);
-        try {
-          prologTerm.printTerm(parserBaseAdapter.parseExpression(value, false));
-        } catch (final ProBParseException parseException) {
-          logger.error("Error parsing value from synthesis node.", parseException);
-        }
-        prologTerm.closeTerm();
+    values.forEach((key, value) -> {
+      prologTerm.openTerm(",").printAtom(key);
+      try {
+        prologTerm.printTerm(ParsedValueCache.get(value));
+      } catch (final ProBParseException parseException) {
+        logger.error("Error parsing value from synthesis node.", parseException);
       }
+      prologTerm.closeTerm();
     });
     prologTerm.closeList();
   }
@@ -62,11 +64,38 @@ class ExampleState {
     return state;
   }
 
+  /**
+   * Return a predicate stating the equality of each machine variable and its value, or null if
+   * there are no values.
+   */
+  String getStateEquality() {
+    if (values.isEmpty()) {
+      return null;
+    }
+    return values.entrySet().stream()
+        .map(entry -> entry.getKey() + " = " + entry.getValue())
+        .collect(Collectors.joining(" & "));
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof ExampleState)) {
+      return false;
+    }
+    final ExampleState exampleState = (ExampleState) other;
+    return hashCode == exampleState.hashCode && values.equals(exampleState.values);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
   @Override
   public String toString() {
-    return state.getValues().entrySet().stream()
-        .map(iEvalElementAbstractEvalResultEntry ->
-            iEvalElementAbstractEvalResultEntry.getValue().toString())
-        .collect(Collectors.joining(", "));
+    return String.join(", ", values.values());
   }
 }
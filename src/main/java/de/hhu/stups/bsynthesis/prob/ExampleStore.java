@@ -0,0 +1,25 @@
+package de.hhu.stups.bsynthesis.prob;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Interns {@link InputOutputExample examples} so that equal examples share a single instance.
+ * Thus, the prolog term of an example is only created once even if the example is created again
+ * in a later synthesis round or from another node. Instances are weakly referenced and dropped as
+ * soon as no command uses them anymore.
+ */
+final class ExampleStore {
+
+  private static final Interner<InputOutputExample> INTERNER = Interners.newWeakInterner();
+
+  private ExampleStore() {
+  }
+
+  /**
+   * Return the canonical instance of the given example.
+   */
+  static InputOutputExample intern(final InputOutputExample example) {
+    return INTERNER.intern(example);
+  }
+}
@@ -0,0 +1,97 @@
+package de.hhu.stups.bsynthesis.prob;
+
+import de.hhu.stups.bsynthesis.ui.SynthesisType;
+import de.prob.animator.domainobjects.AbstractEvalResult;
+import de.prob.animator.domainobjects.ClassicalB;
+import de.prob.animator.domainobjects.EvalResult;
+import de.prob.animator.domainobjects.FormulaExpand;
+import de.prob.statespace.State;
+import de.prob.statespace.StateSpace;
+import de.prob.statespace.Transition;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+/**
+ * Check {@link InputOutputExample examples} against a synthesized program that has been loaded to
+ * a {@link StateSpace}. The input states of the examples are found using a single {@link
+ * FindStatesCommand}, then an invariant has to hold for the positive and to be violated for the
+ * negative input states. A guard has to enable the operation in the positive and disable it in
+ * the negative input states, and an action has to additionally reach the output state of a
+ * positive example. Examples that cannot be checked, e.g., since no state is found, are
+ * considered to fail.
+ */
+final class ExampleVerifier {
+
+  private ExampleVerifier() {
+  }
+
+  /**
+   * Return the examples the program of the given synthesis type fails on.
+   */
+  static Set<InputOutputExample> getFailingExamples(final StateSpace stateSpace,
+                                                    final SynthesisType synthesisType,
+                                                    final String operationName,
+                                                    final Set<InputOutputExample> examples,
+                                                    final boolean positive) {
+    final BiPredicate<State, InputOutputExample> check;
+    if (SynthesisType.INVARIANT.equals(synthesisType)) {
+      check = (state, example) -> state.explore().isInvariantOk() == positive;
+    } else if (synthesisType.isAction() && positive) {
+      check = (state, example) -> reachesOutput(state, operationName, example);
+    } else {
+      check = (state, example) -> isEnabled(state, operationName) == positive;
+    }
+    final List<InputOutputExample> checkedExamples = new ArrayList<>();
+    final List<String> stateEqualities = new ArrayList<>();
+    final Set<InputOutputExample> failingExamples = new HashSet<>();
+    examples.forEach(example -> {
+      final String stateEquality = example.getInput().getStateEquality();
+      if (stateEquality == null) {
+        failingExamples.add(example);
+        return;
+      }
+      checkedExamples.add(example);
+      stateEqualities.add(stateEquality);
+    });
+    if (checkedExamples.isEmpty()) {
+      return failingExamples;
+    }
+    final FindStatesCommand findStatesCommand = new FindStatesCommand(stateSpace, stateEqualities);
+    stateSpace.execute(findStatesCommand);
+    final List<State> states = findStatesCommand.getStates();
+    for (int i = 0; i < checkedExamples.size(); i++) {
+      if (states.get(i) == null || !check.test(states.get(i), checkedExamples.get(i))) {
+        failingExamples.add(checkedExamples.get(i));
+      }
+    }
+    return failingExamples;
+  }
+
+  private static boolean isEnabled(final State state, final String operationName) {
+    return state.explore().getOutTransitions().stream()
+        .anyMatch(transition -> operationName.equals(transition.getName()));
+  }
+
+  private static boolean reachesOutput(final State state,
+                                       final String operationName,
+                                       final InputOutputExample example) {
+    final String outputEquality = example.getOutput().getStateEquality();
+    if (outputEquality == null) {
+      return false;
+    }
+    final ClassicalB outputPredicate = new ClassicalB(outputEquality, FormulaExpand.EXPAND);
+    for (final Transition transition : state.explore().getOutTransitions()) {
+      if (operationName.equals(transition.getName())) {
+        final AbstractEvalResult result = transition.getDestination().eval(outputPredicate);
+        if (result instanceof EvalResult && "TRUE".equals(((EvalResult) result).getValue())) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,138 @@
+package de.hhu.stups.bsynthesis.prob;
+
+import de.prob.statespace.State;
+import de.prob.statespace.StateSpace;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Positive and negative examples read from a text file to run synthesis without the validation
+ * pane. Each line describes one example starting with '+' for a positive or '-' for a negative
+ * example followed by a predicate describing a single state, e.g., {@code + x = 1 & y = 2}. A
+ * transition is described by two predicates separated by {@code =>>}, e.g.,
+ * {@code + x = 1 =>> x = 2}. Unlike {@code ->}, which is part of maplets and the sequence prepend
+ * operator, this separator cannot occur in a B predicate. Empty lines and lines starting with '#'
+ * are ignored. Each predicate is resolved to a state of the given {@link StateSpace}.
+ */
+public final class ExamplesFromFile {
+
+  private static final String TRANSITION_SEPARATOR = "=>>";
+
+  private final List<State[]> positiveExamples = new ArrayList<>();
+  private final List<State[]> negativeExamples = new ArrayList<>();
+  private final Set<String> variableNames = new HashSet<>();
+  private boolean hasTransitions;
+
+  private ExamplesFromFile() {
+  }
+
+  /**
+   * Read the examples from the given file and find the corresponding states in the given
+   * {@link StateSpace}.
+   */
+  public static ExamplesFromFile read(final Path path,
+                                      final StateSpace stateSpace) throws IOException {
+    final ExamplesFromFile examplesFromFile = new ExamplesFromFile();
+    final List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+    final List<Integer> lineNumbers = new ArrayList<>();
+    final List<Boolean> isPositive = new ArrayList<>();
+    final List<String[]> examplePredicates = new ArrayList<>();
+    final List<String> predicates = new ArrayList<>();
+    for (int lineNumber = 1; lineNumber <= lines.size(); lineNumber++) {
+      final String line = lines.get(lineNumber - 1).trim();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      final char sign = line.charAt(0);
+      if (sign != '+' && sign != '-') {
+        throw new IOException("Line " + lineNumber + " of " + path
+            + " does not start with '+' or '-'.");
+      }
+      final String[] linePredicates = line.substring(1).split(TRANSITION_SEPARATOR);
+      if (linePredicates.length > 2) {
+        throw new IOException("Line " + lineNumber + " of " + path
+            + " describes more than one transition.");
+      }
+      lineNumbers.add(lineNumber);
+      isPositive.add(sign == '+');
+      examplePredicates.add(linePredicates);
+      Arrays.stream(linePredicates).map(String::trim).forEach(predicates::add);
+    }
+    if (predicates.isEmpty()) {
+      return examplesFromFile;
+    }
+    // find all states using a single call to prolog
+    final FindStatesCommand findStatesCommand = new FindStatesCommand(stateSpace, predicates);
+    stateSpace.execute(findStatesCommand);
+    final List<State> states = findStatesCommand.getStates();
+    int stateIndex = 0;
+    for (int i = 0; i < examplePredicates.size(); i++) {
+      final String[] linePredicates = examplePredicates.get(i);
+      final State[] exampleStates = new State[linePredicates.length];
+      for (int j = 0; j < linePredicates.length; j++) {
+        exampleStates[j] = states.get(stateIndex++);
+        if (exampleStates[j] == null) {
+          throw new IOException("No state found for '" + linePredicates[j].trim()
+              + "' in line " + lineNumbers.get(i) + " of " + path + ".");
+        }
+      }
+      final State inputState = exampleStates[0];
+      final State outputState = exampleStates.length == 2 ? exampleStates[1] : inputState;
+      examplesFromFile.hasTransitions |= exampleStates.length == 2;
+      examplesFromFile.variableNames.addAll(getVariableNames(inputState));
+      (isPositive.get(i) ? examplesFromFile.positiveExamples : examplesFromFile.negativeExamples)
+          .add(new State[] {inputState, outputState});
+    }
+    return examplesFromFile;
+  }
+
+  private static Set<String> getVariableNames(final State state) {
+    final Set<String> names = new HashSet<>();
+    state.getVariableValues().keySet().forEach(evalElement -> names.add(evalElement.getCode()));
+    return names;
+  }
+
+  Set<InputOutputExample> getPositiveExamples(final Set<String> currentVarNames) {
+    return getInputOutputExamples(positiveExamples, currentVarNames);
+  }
+
+  Set<InputOutputExample> getNegativeExamples(final Set<String> currentVarNames) {
+    return getInputOutputExamples(negativeExamples, currentVarNames);
+  }
+
+  private Set<InputOutputExample> getInputOutputExamples(final List<State[]> examples,
+                                                         final Set<String> currentVarNames) {
+    final Set<InputOutputExample> inputOutputExamples = new HashSet<>();
+    examples.forEach(example -> inputOutputExamples.add(ExampleStore.intern(
+        new InputOutputExample(new ExampleState(example[0], currentVarNames),
+            new ExampleState(example[1], currentVarNames)))));
+    return inputOutputExamples;
+  }
+
+  /**
+   * The names of the machine variables of the example states.
+   */
+  public Set<String> getVariableNames() {
+    return variableNames;
+  }
+
+  /**
+   * Return true if at least one example describes a transition, i.e., an operation has to be
+   * synthesized.
+   */
+  public boolean hasTransitions() {
+    return hasTransitions;
+  }
+
+  public int size() {
+    return positiveExamples.size() + negativeExamples.size();
+  }
+}
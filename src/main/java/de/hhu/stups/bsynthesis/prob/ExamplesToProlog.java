@@ -19,17 +19,14 @@ public interface ExamplesToProlog {
   static void printList(final IPrologTermOutput pto,
                         final Set<InputOutputExample> examples) {
     pto.openList();
-    examples.forEach(example -> {
-      pto.openTerm(",");
-      example.printInputOutputStateToPrologTerm(pto);
-      pto.closeTerm();
-    });
+    examples.forEach(example -> pto.printTerm(example.getPrologTerm()));
     pto.closeList();
   }
 
 
   /**
-   * Create a set of {@link InputOutputExample} for a given list of {@link BasicNode}.
+   * Create a set of {@link InputOutputExample} for a given list of {@link BasicNode}. Nodes with
+   * equal values of the current machine variables result in a single example.
    */
   static Set<InputOutputExample> getInputOutputExamples(final List<BasicNode> examples,
                                                         final Set<String> currentVarNames) {
@@ -55,9 +52,9 @@ public interface ExamplesToProlog {
       // operation / substitution
       final State inputState = ((TransitionNode) basicNode).getInputState();
       final State outputState = ((TransitionNode) basicNode).getOutputState();
-      inputOutputExamples.add(
+      inputOutputExamples.add(ExampleStore.intern(
           new InputOutputExample(new ExampleState(inputState, currentVarNames),
-              new ExampleState(outputState, currentVarNames)));
+              new ExampleState(outputState, currentVarNames))));
     }
   }
 
@@ -74,6 +71,7 @@ public interface ExamplesToProlog {
     }
     // same input and output since the output is replaced with either true or false anyways
     final ExampleState exampleState = new ExampleState(state, currentVarNames);
-    inputOutputExamples.add(new InputOutputExample(exampleState, exampleState));
+    inputOutputExamples.add(
+        ExampleStore.intern(new InputOutputExample(exampleState, exampleState)));
   }
 }
@@ -0,0 +1,53 @@
+package de.hhu.stups.bsynthesis.prob;
+
+import de.prob.animator.command.ComposedCommand;
+import de.prob.animator.command.FindStateCommand;
+import de.prob.animator.domainobjects.ClassicalB;
+import de.prob.animator.domainobjects.FormulaExpand;
+import de.prob.statespace.State;
+import de.prob.statespace.StateSpace;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Find the states for several equality predicates, e.g., returned by {@link
+ * VisualizeInvariantsCommand}, using a single call to the prolog backend instead of executing a
+ * {@link FindStateCommand} for each predicate.
+ */
+public class FindStatesCommand extends ComposedCommand {
+
+  private final StateSpace stateSpace;
+
+  public FindStatesCommand(final StateSpace stateSpace,
+                           final List<String> predicates) {
+    super(predicates.stream()
+        .map(predicate -> new FindStateCommand(stateSpace,
+            new ClassicalB(predicate, FormulaExpand.EXPAND), false))
+        .collect(Collectors.toList()));
+    this.stateSpace = stateSpace;
+  }
+
+  /**
+   * Return the result types in the order of the given predicates, e.g., to distinguish predicates
+   * without a state from erroneous ones.
+   */
+  public List<FindStateCommand.ResultType> getResults() {
+    return getSubcommands().stream()
+        .map(command -> ((FindStateCommand) command).getResult())
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Return the states in the order of the given predicates, a state is null if no state has been
+   * found for the corresponding predicate.
+   */
+  public List<State> getStates() {
+    return getSubcommands().stream()
+        .map(command -> (FindStateCommand) command)
+        .map(findStateCommand ->
+            FindStateCommand.ResultType.STATE_FOUND.equals(findStateCommand.getResult())
+                ? stateSpace.getState(findStateCommand.getStateId()) : null)
+        .collect(Collectors.toList());
+  }
+}
@@ -1,16 +1,29 @@
 package de.hhu.stups.bsynthesis.prob;
 
 import de.prob.prolog.output.IPrologTermOutput;
+import de.prob.prolog.output.StructuredPrologOutput;
+import de.prob.prolog.term.PrologTerm;
 
+import java.util.Objects;
+
+/**
+ * A tuple of input and output {@link ExampleState}. Examples are equal if their input and output
+ * values are equal, e.g., the same state reached via two traces, so that sets of examples do not
+ * contain duplicates. Use {@link ExampleStore#intern} to share a single instance and its prolog
+ * term between equal examples.
+ */
 class InputOutputExample {
 
   private final ExampleState input;
   private final ExampleState output;
+  private final int hashCode;
+  private PrologTerm prologTerm;
 
   InputOutputExample(final ExampleState input,
                      final ExampleState output) {
     this.input = input;
     this.output = output;
+    hashCode = Objects.hash(input, output);
   }
 
   private void printInputStateToPrologTerm(final IPrologTermOutput prologTerm) {
@@ -36,6 +49,46 @@ class InputOutputExample {
     printOutputStateToPrologTerm(pto);
   }
 
+  ExampleState getInput() {
+    return input;
+  }
+
+  ExampleState getOutput() {
+    return output;
+  }
+
+  /**
+   * Return the tuple of input and output state as a prolog term which is only created once.
+   */
+  synchronized PrologTerm getPrologTerm() {
+    if (prologTerm == null) {
+      final StructuredPrologOutput structuredPrologOutput = new StructuredPrologOutput();
+      structuredPrologOutput.openTerm(",");
+      printInputOutputStateToPrologTerm(structuredPrologOutput);
+      structuredPrologOutput.closeTerm().fullstop();
+      prologTerm = structuredPrologOutput.getSentences().get(0);
+    }
+    return prologTerm;
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof InputOutputExample)) {
+      return false;
+    }
+    final InputOutputExample example = (InputOutputExample) other;
+    return hashCode == example.hashCode && Objects.equals(input, example.input)
+        && Objects.equals(output, example.output);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
   @Override
   public String toString() {
     return input.toString() + " " + output.toString();
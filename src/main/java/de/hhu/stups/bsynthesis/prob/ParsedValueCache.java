@@ -0,0 +1,55 @@
+package de.hhu.stups.bsynthesis.prob;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import de.be4.classicalb.core.parser.ClassicalBParser;
+import de.prob.parserbase.ProBParseException;
+import de.prob.parserbase.ProBParserBaseAdapter;
+import de.prob.prolog.term.PrologTerm;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A bounded cache of parsed B values shared by all {@link ExampleState example states}. The same
+ * values are printed to several {@link StartSynthesisCommand commands}, e.g., when running
+ * synthesis in parallel, so that each value only needs to be parsed once. The maximum amount of
+ * cached values can be configured by the system property bsynthesis.valueCache.size.
+ */
+final class ParsedValueCache {
+
+  private static final int MAXIMUM_SIZE = Integer.getInteger("bsynthesis.valueCache.size", 10000);
+
+  /**
+   * The parser is not thread-safe, so each thread parsing a value uses its own instance.
+   */
+  private static final ThreadLocal<ProBParserBaseAdapter> PARSER = ThreadLocal.withInitial(() ->
+      new ProBParserBaseAdapter(new ClassicalBParser()));
+
+  private static final LoadingCache<String, PrologTerm> CACHE = CacheBuilder.newBuilder()
+      .maximumSize(MAXIMUM_SIZE)
+      .build(new CacheLoader<String, PrologTerm>() {
+        @Override
+        public PrologTerm load(final String value) throws ProBParseException {
+          return PARSER.get().parseExpression(value, false);
+        }
+      });
+
+  private ParsedValueCache() {
+  }
+
+  /**
+   * Return the parsed prolog term of the given value.
+   */
+  static PrologTerm get(final String value) throws ProBParseException {
+    try {
+      return CACHE.get(value);
+    } catch (final ExecutionException executionException) {
+      if (executionException.getCause() instanceof ProBParseException) {
+        throw (ProBParseException) executionException.getCause();
+      }
+      throw new IllegalStateException(executionException.getCause());
+    }
+  }
+}
@@ -3,6 +3,9 @@ package de.hhu.stups.bsynthesis.prob;
 import static de.hhu.stups.bsynthesis.prob.ExamplesToProlog.getInputOutputExamples;
 import static de.hhu.stups.bsynthesis.prob.ExamplesToProlog.printList;
 
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
 import de.hhu.stups.bsynthesis.services.SolverBackend;
 import de.hhu.stups.bsynthesis.ui.SynthesisType;
 import de.hhu.stups.bsynthesis.ui.components.library.BLibrary;
@@ -11,8 +14,10 @@ import de.prob.animator.command.AbstractCommand;
 import de.prob.parser.BindingGenerator;
 import de.prob.parser.ISimplifiedROMap;
 import de.prob.prolog.output.IPrologTermOutput;
+import de.prob.prolog.output.PrologTermStringOutput;
 import de.prob.prolog.term.CompoundPrologTerm;
 import de.prob.prolog.term.PrologTerm;
+import de.prob.statespace.StateSpace;
 
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ObjectProperty;
@@ -24,12 +29,15 @@ import javafx.beans.property.StringProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class StartSynthesisCommand extends AbstractCommand {
 
@@ -57,7 +65,14 @@ public class StartSynthesisCommand extends AbstractCommand {
   private final SolverBackend solverBackend;
   private final Set<String> currentVarNames;
   private final Set<CompoundPrologTerm> synthesizedOperations;
+  /**
+   * The examples that are sent to the prolog backend, a subset of all examples if {@link
+   * #minimizeExamples(int) minimized}.
+   */
+  private final Set<InputOutputExample> activePositiveExamples;
+  private final Set<InputOutputExample> activeNegativeExamples;
   private final boolean isImplicitIf;
+  private String fingerprint;
 
   /**
    * Start the synthesis workflow by calling the prolog backend.
@@ -69,14 +84,44 @@ public class StartSynthesisCommand extends AbstractCommand {
                                final SynthesisType synthesisType,
                                final Map<String, List<BasicNode>> examples,
                                final SolverBackend solverBackend) {
+    this(selectedLibraryComponents, currentOperation, currentVarNames, synthesizedOperations,
+        synthesisType, getInputOutputExamples(examples.get("valid"), currentVarNames),
+        getInputOutputExamples(examples.get("invalid"), currentVarNames), solverBackend);
+  }
+
+  /**
+   * Start the synthesis workflow using examples that have been {@link ExamplesFromFile read from a
+   * file} instead of being provided by the validation pane.
+   */
+  public StartSynthesisCommand(final BLibrary selectedLibraryComponents,
+                               final String currentOperation,
+                               final Set<String> currentVarNames,
+                               final SynthesisType synthesisType,
+                               final ExamplesFromFile examples,
+                               final SolverBackend solverBackend) {
+    this(selectedLibraryComponents, currentOperation, currentVarNames, new HashSet<>(),
+        synthesisType, examples.getPositiveExamples(currentVarNames),
+        examples.getNegativeExamples(currentVarNames), solverBackend);
+  }
+
+  private StartSynthesisCommand(final BLibrary selectedLibraryComponents,
+                                final String currentOperation,
+                                final Set<String> currentVarNames,
+                                final Set<CompoundPrologTerm> synthesizedOperations,
+                                final SynthesisType synthesisType,
+                                final Set<InputOutputExample> positiveExamples,
+                                final Set<InputOutputExample> negativeExamples,
+                                final SolverBackend solverBackend) {
     this.currentOperation = currentOperation;
     this.synthesisType = synthesisType;
-    this.positiveExamples = getInputOutputExamples(examples.get("valid"), currentVarNames);
-    this.negativeExamples = getInputOutputExamples(examples.get("invalid"), currentVarNames);
+    this.positiveExamples = positiveExamples;
+    this.negativeExamples = negativeExamples;
     this.selectedLibraryComponents = selectedLibraryComponents;
     this.solverBackend = solverBackend;
     this.currentVarNames = currentVarNames;
     this.synthesizedOperations = synthesizedOperations;
+    activePositiveExamples = new HashSet<>(positiveExamples);
+    activeNegativeExamples = new HashSet<>(negativeExamples);
     isImplicitIf = selectedLibraryComponents.considerIfStatementsProperty().get().isImplicit();
   }
 
@@ -84,6 +129,15 @@ public class StartSynthesisCommand extends AbstractCommand {
    * Copy constructor for {@link StartSynthesisCommand} with a deep copy of {@link BLibrary}.
    */
   public StartSynthesisCommand(final StartSynthesisCommand startSynthesisCommand) {
+    this(startSynthesisCommand, startSynthesisCommand.getSolverBackend());
+  }
+
+  /**
+   * Copy constructor for {@link StartSynthesisCommand} with a deep copy of {@link BLibrary} that
+   * uses the given {@link SolverBackend} instead of the copied command's one.
+   */
+  public StartSynthesisCommand(final StartSynthesisCommand startSynthesisCommand,
+                               final SolverBackend solverBackend) {
     currentOperation = startSynthesisCommand.getCurrentOperation();
     synthesisType = startSynthesisCommand.getSynthesisType();
     positiveExamples = new HashSet<>(startSynthesisCommand.getPositiveExamples());
@@ -91,10 +145,13 @@ public class StartSynthesisCommand extends AbstractCommand {
     selectedLibraryComponents = new BLibrary(startSynthesisCommand.getSelectedLibraryComponents());
     selectedLibraryComponents.solverTimeOutProperty()
         .bind(startSynthesisCommand.getSelectedLibraryComponents().solverTimeOutProperty());
-    solverBackend = startSynthesisCommand.getSolverBackend();
+    this.solverBackend = solverBackend;
     currentVarNames = startSynthesisCommand.getCurrentVarNames();
     synthesizedOperations = new HashSet<>();
+    activePositiveExamples = new HashSet<>(startSynthesisCommand.activePositiveExamples);
+    activeNegativeExamples = new HashSet<>(startSynthesisCommand.activeNegativeExamples);
     isImplicitIf = selectedLibraryComponents.considerIfStatementsProperty().get().isImplicit();
+    fingerprint = startSynthesisCommand.getFingerprint();
   }
 
   @Override
@@ -115,8 +172,8 @@ public class StartSynthesisCommand extends AbstractCommand {
     printLibrary(pto);
     pto.printAtom(currentOperation)
         .printAtom(synthesisType.toEventBString().toLowerCase());
-    printList(pto, positiveExamples);
-    printList(pto, negativeExamples);
+    printList(pto, activePositiveExamples);
+    printList(pto, activeNegativeExamples);
     pto.printVariable(MODIFIED_MACHINE).printVariable(DISTINGUISHING_EXAMPLE).closeTerm();
     logger.info("Start synthesis prolog backend by calling prob2_interface: {}", pto);
   }
@@ -236,6 +293,105 @@ public class StartSynthesisCommand extends AbstractCommand {
     return behaviorSatisfiedProperty;
   }
 
+  /**
+   * A rough estimate of the cost of this synthesis problem used to prioritize queued commands:
+   * the amount of examples and variables scaled by the library expansion.
+   */
+  public long getEstimatedCost() {
+    final long examples = (long) activePositiveExamples.size() + activeNegativeExamples.size();
+    return examples * Math.max(1, currentVarNames.size()) * getLibraryExpansion();
+  }
+
+  /**
+   * Only send a core of at most the given amount of positive and negative examples each to the
+   * prolog backend. The core is spread over the examples sorted by their values. Examples are only
+   * minimized for synthesis types that {@link #addFailingExamples(StateSpace) can be verified}.
+   * Return true if examples have been left out.
+   */
+  public boolean minimizeExamples(final int coreSize) {
+    if (isImplicitIf || !(synthesisType.isAction() || SynthesisType.GUARD.equals(synthesisType)
+        || SynthesisType.INVARIANT.equals(synthesisType))) {
+      return false;
+    }
+    activePositiveExamples.retainAll(selectExamples(positiveExamples, coreSize));
+    activeNegativeExamples.retainAll(selectExamples(negativeExamples, coreSize));
+    return isMinimized();
+  }
+
+  /**
+   * Add further examples that have been left out so far, as many as there are active examples,
+   * e.g., if a distinguishing example has been found for the core that the left out examples
+   * might already decide. Return the amount of added examples.
+   */
+  public int growExamples() {
+    return addExamples(activePositiveExamples, positiveExamples, activePositiveExamples.size())
+        + addExamples(activeNegativeExamples, negativeExamples, activeNegativeExamples.size());
+  }
+
+  /**
+   * Add all examples that have been left out so far and return their amount.
+   */
+  public int addAllExamples() {
+    return addExamples(activePositiveExamples, positiveExamples, positiveExamples.size())
+        + addExamples(activeNegativeExamples, negativeExamples, negativeExamples.size());
+  }
+
+  /**
+   * Verify the synthesized program, which has been loaded to the given statespace, against all
+   * examples and add the left out examples it fails on. The operation that already satisfies the
+   * behavior is verified instead of the current operation if there is one. Return the amount of
+   * added examples, i.e., 0 if the program is correct for all examples.
+   */
+  public int addFailingExamples(final StateSpace stateSpace) {
+    final String operationName = behaviorSatisfiedProperty.get() == null
+        ? currentOperation : behaviorSatisfiedProperty.get();
+    final Set<InputOutputExample> failingPositiveExamples = ExampleVerifier.getFailingExamples(
+        stateSpace, synthesisType, operationName, positiveExamples, true);
+    final Set<InputOutputExample> failingNegativeExamples = ExampleVerifier.getFailingExamples(
+        stateSpace, synthesisType, operationName, negativeExamples, false);
+    failingPositiveExamples.removeAll(activePositiveExamples);
+    failingNegativeExamples.removeAll(activeNegativeExamples);
+    activePositiveExamples.addAll(failingPositiveExamples);
+    activeNegativeExamples.addAll(failingNegativeExamples);
+    return failingPositiveExamples.size() + failingNegativeExamples.size();
+  }
+
+  /**
+   * Return true if examples are left out when running this command.
+   */
+  public boolean isMinimized() {
+    return activePositiveExamples.size() < positiveExamples.size()
+        || activeNegativeExamples.size() < negativeExamples.size();
+  }
+
+  private int addExamples(final Set<InputOutputExample> activeExamples,
+                          final Set<InputOutputExample> examples,
+                          final int amount) {
+    final Set<InputOutputExample> leftOutExamples = new HashSet<>(examples);
+    leftOutExamples.removeAll(activeExamples);
+    final Set<InputOutputExample> addedExamples =
+        selectExamples(leftOutExamples, Math.max(1, amount));
+    activeExamples.addAll(addedExamples);
+    return addedExamples.size();
+  }
+
+  /**
+   * Select the given amount of examples evenly spread over the examples sorted by their values.
+   */
+  private static Set<InputOutputExample> selectExamples(final Set<InputOutputExample> examples,
+                                                        final int amount) {
+    if (examples.size() <= amount) {
+      return new HashSet<>(examples);
+    }
+    final List<InputOutputExample> sortedExamples = examples.stream()
+        .sorted(Comparator.comparing(InputOutputExample::toString)).collect(Collectors.toList());
+    final Set<InputOutputExample> selectedExamples = new HashSet<>();
+    for (int i = 0; i < amount; i++) {
+      selectedExamples.add(sortedExamples.get(i * sortedExamples.size() / amount));
+    }
+    return selectedExamples;
+  }
+
   public boolean expandLibrary() {
     return selectedLibraryComponents.expandDefaultLibrary();
   }
@@ -256,7 +412,7 @@ public class StartSynthesisCommand extends AbstractCommand {
     return selectedLibraryComponents;
   }
 
-  private SolverBackend getSolverBackend() {
+  public SolverBackend getSolverBackend() {
     return solverBackend;
   }
 
@@ -264,6 +420,40 @@ public class StartSynthesisCommand extends AbstractCommand {
     return currentVarNames;
   }
 
+  /**
+   * Compute a stable fingerprint of this synthesis problem consisting of the given machine code,
+   * the synthesis type, the operation, the library configuration, the solver backend and the
+   * examples. The fingerprint is kept by copies of this command.
+   */
+  public String computeFingerprint(final String machineCode) {
+    final PrologTermStringOutput libraryOutput = new PrologTermStringOutput();
+    selectedLibraryComponents.printToPrologTerm(libraryOutput);
+    final Hasher hasher = Hashing.sha256().newHasher();
+    Stream.of(machineCode, synthesisType.toString(), String.valueOf(currentOperation),
+        libraryOutput.toString(), String.valueOf(selectedLibraryComponents.getSolverTimeOut()),
+        selectedLibraryComponents.considerIfStatementsProperty().get().toString(),
+        String.valueOf(selectedLibraryComponents.doNotUseConstantsProperty().get()),
+        solverBackend.toString(),
+        currentVarNames.stream().sorted().collect(Collectors.joining(",")),
+        getExamplesFingerprint(positiveExamples), getExamplesFingerprint(negativeExamples))
+        .forEach(component -> hasher.putString(component, StandardCharsets.UTF_8).putChar('\0'));
+    fingerprint = hasher.hash().toString();
+    return fingerprint;
+  }
+
+  private String getExamplesFingerprint(final Set<InputOutputExample> examples) {
+    return examples.stream().map(example -> example.getPrologTerm().toString()).sorted()
+        .collect(Collectors.joining(";"));
+  }
+
+  /**
+   * The fingerprint that has been {@link #computeFingerprint(String) computed} for this command or
+   * its original command, or null.
+   */
+  public String getFingerprint() {
+    return fingerprint;
+  }
+
   public boolean isImplicitIf() {
     return isImplicitIf;
   }
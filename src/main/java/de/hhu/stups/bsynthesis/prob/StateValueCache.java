@@ -0,0 +1,91 @@
+package de.hhu.stups.bsynthesis.prob;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import de.prob.animator.command.AbstractCommand;
+import de.prob.animator.command.ComposedCommand;
+import de.prob.animator.command.EvaluationCommand;
+import de.prob.animator.domainobjects.AbstractEvalResult;
+import de.prob.animator.domainobjects.ClassicalB;
+import de.prob.animator.domainobjects.EvalResult;
+import de.prob.animator.domainobjects.FormulaExpand;
+import de.prob.statespace.State;
+import de.prob.statespace.StateSpace;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded cache of the variable values of {@link State states} keyed by the statespace and the
+ * state id. The values that are not cached yet are evaluated for several states using a single
+ * call to prolog instead of evaluating each variable of each state on its own. The maximum amount
+ * of cached states can be configured by the system property bsynthesis.stateValueCache.size.
+ */
+public final class StateValueCache {
+
+  private static final int MAXIMUM_SIZE =
+      Integer.getInteger("bsynthesis.stateValueCache.size", 1000);
+
+  private static final Cache<String, Map<String, String>> CACHE = CacheBuilder.newBuilder()
+      .maximumSize(MAXIMUM_SIZE)
+      .build();
+
+  private StateValueCache() {
+  }
+
+  /**
+   * Return the cached values of the given state without evaluating anything. The values might
+   * not contain all variables.
+   */
+  public static Map<String, String> getCachedValues(final State state) {
+    final Map<String, String> values = CACHE.getIfPresent(getKey(state));
+    return values == null ? Collections.emptyMap() : values;
+  }
+
+  /**
+   * Return the values of the given variables for each of the given states, which need to belong
+   * to the same statespace. Values that cannot be evaluated, e.g., in a state that is not
+   * initialised, are empty strings.
+   */
+  public static Map<State, Map<String, String>> getValues(final Collection<State> states,
+                                                          final Collection<String> varNames) {
+    final Map<State, Map<String, String>> values = new HashMap<>();
+    final List<AbstractCommand> evaluationCommands = new ArrayList<>();
+    final List<Map<String, String>> evaluatedStateValues = new ArrayList<>();
+    StateSpace stateSpace = null;
+    for (final State state : states) {
+      final Map<String, String> stateValues = new HashMap<>(getCachedValues(state));
+      values.put(state, stateValues);
+      for (final String varName : varNames) {
+        if (!stateValues.containsKey(varName)) {
+          evaluationCommands.add(
+              new ClassicalB(varName, FormulaExpand.EXPAND).getCommand(state));
+          evaluatedStateValues.add(stateValues);
+          stateSpace = state.getStateSpace();
+        }
+      }
+    }
+    if (stateSpace == null) {
+      return values;
+    }
+    stateSpace.execute(new ComposedCommand(evaluationCommands));
+    for (int i = 0; i < evaluationCommands.size(); i++) {
+      final EvaluationCommand evaluationCommand = (EvaluationCommand) evaluationCommands.get(i);
+      final AbstractEvalResult result = evaluationCommand.getValue();
+      evaluatedStateValues.get(i).put(evaluationCommand.getEvalElement().getCode(),
+          result instanceof EvalResult ? result.toString() : "");
+    }
+    values.forEach((state, stateValues) ->
+        CACHE.put(getKey(state), Collections.unmodifiableMap(stateValues)));
+    return values;
+  }
+
+  private static String getKey(final State state) {
+    return state.getStateSpace().getId() + ":" + state.getId();
+  }
+}
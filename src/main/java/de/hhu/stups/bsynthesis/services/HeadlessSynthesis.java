@@ -0,0 +1,216 @@
+package de.hhu.stups.bsynthesis.services;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import de.hhu.stups.bsynthesis.prob.ExamplesFromFile;
+import de.hhu.stups.bsynthesis.prob.StartSynthesisCommand;
+import de.hhu.stups.bsynthesis.services.HeadlessSynthesisResult.Status;
+import de.hhu.stups.bsynthesis.ui.SynthesisType;
+import de.hhu.stups.bsynthesis.ui.components.library.BLibrary;
+import de.hhu.stups.bsynthesis.ui.components.library.LibraryComponent;
+import de.prob.statespace.StateSpace;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+/**
+ * Run synthesis using the {@link ProBApiService} without the JavaFX toolkit, e.g., for batch runs
+ * on a build server. A single {@link StartSynthesisCommand} is run until it either finds a
+ * solution, a distinguishing example, fails for all library expansions or times out.
+ */
+@Singleton
+public class HeadlessSynthesis {
+
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private final ProBApiService proBApiService;
+
+  @Inject
+  public HeadlessSynthesis(final ProBApiService proBApiService) {
+    this.proBApiService = proBApiService;
+    proBApiService.setHeadless(true);
+  }
+
+  /**
+   * Load the given machine to the main statespace and the pooled instances and return the main
+   * statespace, or null if the machine could not be loaded.
+   */
+  public StateSpace loadMachine(final File file) {
+    if (proBApiService.loadMachine(file) == null) {
+      return null;
+    }
+    return proBApiService.getMainStateSpace();
+  }
+
+  /**
+   * Run synthesis on a single ProB instance instead of the pooled instances.
+   */
+  public void setUseSingleThread(final boolean useSingleThread) {
+    proBApiService.useSingleThreadProperty().set(useSingleThread);
+  }
+
+  /**
+   * Race both solver backends against each other on separate pooled instances.
+   */
+  public void setUsePortfolio(final boolean usePortfolio) {
+    proBApiService.usePortfolioProperty().set(usePortfolio);
+  }
+
+  /**
+   * Enable or disable the cache of synthesis results, which would answer repeated runs of the same
+   * command without running synthesis.
+   */
+  public void setUseResultCache(final boolean useResultCache) {
+    proBApiService.setResultCacheEnabled(useResultCache);
+  }
+
+  /**
+   * Synthesize from a core of the examples that only grows by the examples the candidate programs
+   * fail on.
+   */
+  public void setMinimizeExamples(final boolean minimizeExamples) {
+    proBApiService.minimizeExamplesProperty().set(minimizeExamples);
+  }
+
+  /**
+   * Run the given command and wait for its result for at most the given amount of milliseconds.
+   */
+  public HeadlessSynthesisResult synthesize(final StartSynthesisCommand startSynthesisCommand,
+                                            final long timeOut) {
+    proBApiService.reset();
+    final CompletableFuture<HeadlessSynthesisResult> resultFuture = new CompletableFuture<>();
+    final long startTime = System.currentTimeMillis();
+    final InvalidationListener completionListener =
+        observable -> checkCompletion(resultFuture, startTime);
+    final List<Observable> observables = Arrays.asList(
+        proBApiService.synthesisRunningProperty(), proBApiService.synthesisSucceededProperty(),
+        proBApiService.modifiedMachineCodeProperty(), proBApiService.behaviorSatisfiedProperty(),
+        proBApiService.distinguishingExampleProperty());
+    observables.forEach(observable -> observable.addListener(completionListener));
+    try {
+      proBApiService.startSynthesisEventSource().push(startSynthesisCommand);
+      checkCompletion(resultFuture, startTime);
+      return resultFuture.get(timeOut, TimeUnit.MILLISECONDS);
+    } catch (final TimeoutException timeoutException) {
+      logger.info("Synthesis timed out after {} ms.", timeOut);
+      return new HeadlessSynthesisResult(Status.TIMEOUT, null, null, null,
+          System.currentTimeMillis() - startTime);
+    } catch (final InterruptedException interruptedException) {
+      Thread.currentThread().interrupt();
+      return new HeadlessSynthesisResult(Status.TIMEOUT, null, null, null,
+          System.currentTimeMillis() - startTime);
+    } catch (final ExecutionException executionException) {
+      throw new IllegalStateException(executionException.getCause());
+    } finally {
+      observables.forEach(observable -> observable.removeListener(completionListener));
+      // cancel remaining tasks, e.g., when timing out
+      proBApiService.reset();
+    }
+  }
+
+  private void checkCompletion(final CompletableFuture<HeadlessSynthesisResult> resultFuture,
+                               final long startTime) {
+    final long duration = System.currentTimeMillis() - startTime;
+    final String behaviorSatisfied = proBApiService.behaviorSatisfiedProperty().get();
+    final String modifiedMachineCode = proBApiService.modifiedMachineCodeProperty().get();
+    if (proBApiService.synthesisSucceededProperty().get()) {
+      if (behaviorSatisfied != null) {
+        resultFuture.complete(new HeadlessSynthesisResult(Status.BEHAVIOR_SATISFIED, null,
+            behaviorSatisfied, null, duration));
+      } else if (modifiedMachineCode != null) {
+        resultFuture.complete(new HeadlessSynthesisResult(Status.SOLUTION, modifiedMachineCode,
+            null, null, duration));
+      }
+      // otherwise, wait for the machine code being set
+      return;
+    }
+    if (proBApiService.distinguishingExampleProperty().get() != null) {
+      resultFuture.complete(new HeadlessSynthesisResult(Status.DISTINGUISHING_EXAMPLE, null, null,
+          proBApiService.distinguishingExampleProperty().get(), duration));
+      return;
+    }
+    if (proBApiService.synthesisRunningProperty().not().get()) {
+      resultFuture.complete(
+          new HeadlessSynthesisResult(Status.NO_SOLUTION, null, null, null, duration));
+    }
+  }
+
+  /**
+   * Stop all synthesis instances and kill the pooled ProB instances.
+   */
+  public void shutdown() {
+    proBApiService.reset();
+    proBApiService.shutdownExecutor();
+  }
+
+  /**
+   * Return the given synthesis type or guess it from the examples: transitions describe an action
+   * while states describe a guard.
+   */
+  public static SynthesisType getSynthesisType(final String type,
+                                               final ExamplesFromFile examples) {
+    if (type == null) {
+      return examples.hasTransitions() ? SynthesisType.ACTION : SynthesisType.GUARD;
+    }
+    switch (type.toLowerCase()) {
+      case "guard":
+        return SynthesisType.GUARD;
+      case "invariant":
+        return SynthesisType.INVARIANT;
+      case "action":
+        return SynthesisType.ACTION;
+      default:
+        throw new IllegalArgumentException("Unknown synthesis type " + type + ".");
+    }
+  }
+
+  /**
+   * Return the default library configuration, e.g., default:2 to start at the second level of
+   * library expansions, or the library components given by their internal names, e.g.,
+   * add*2,less,equal.
+   */
+  public static BLibrary getLibrary(final String libraryArgument) {
+    final BLibrary library = new BLibrary();
+    if (libraryArgument.startsWith("default")) {
+      final String[] splitArgument = libraryArgument.split(":");
+      library.setLibraryExpansion(splitArgument.length > 1
+          ? Integer.parseInt(splitArgument[1]) : 1);
+      return library;
+    }
+    library.useDefaultLibraryProperty().set(false);
+    final BLibrary availableComponents = new BLibrary();
+    availableComponents.initializeLibrary();
+    for (final String component : libraryArgument.split(",")) {
+      final String[] splitComponent = component.trim().split("\\*");
+      final Optional<LibraryComponent> libraryComponent = Stream.of(
+          availableComponents.getPredicates(), availableComponents.getSets(),
+          availableComponents.getNumbers(), availableComponents.getRelations(),
+          availableComponents.getSequences(), availableComponents.getSubstitutions())
+          .flatMap(Collection::stream)
+          .filter(candidate -> candidate.getInternalName().equals(splitComponent[0]))
+          .findFirst();
+      if (!libraryComponent.isPresent()) {
+        throw new IllegalArgumentException("Unknown library component " + splitComponent[0] + ".");
+      }
+      library.addLibraryComponent(libraryComponent.get());
+      if (splitComponent.length > 1) {
+        libraryComponent.get().amountProperty().set(Integer.parseInt(splitComponent[1]));
+      }
+    }
+    return library;
+  }
+}
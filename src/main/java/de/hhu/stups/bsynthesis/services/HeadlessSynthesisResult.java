@@ -0,0 +1,54 @@
+package de.hhu.stups.bsynthesis.services;
+
+import de.hhu.stups.bsynthesis.prob.DistinguishingExample;
+
+/**
+ * The outcome of a single synthesis run using {@link HeadlessSynthesis}.
+ */
+public final class HeadlessSynthesisResult {
+
+  public enum Status {
+    SOLUTION, BEHAVIOR_SATISFIED, DISTINGUISHING_EXAMPLE, NO_SOLUTION, TIMEOUT
+  }
+
+  private final Status status;
+  private final String modifiedMachineCode;
+  private final String satisfyingOperation;
+  private final DistinguishingExample distinguishingExample;
+  private final long durationMillis;
+
+  HeadlessSynthesisResult(final Status status,
+                          final String modifiedMachineCode,
+                          final String satisfyingOperation,
+                          final DistinguishingExample distinguishingExample,
+                          final long durationMillis) {
+    this.status = status;
+    this.modifiedMachineCode = modifiedMachineCode;
+    this.satisfyingOperation = satisfyingOperation;
+    this.distinguishingExample = distinguishingExample;
+    this.durationMillis = durationMillis;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public String getModifiedMachineCode() {
+    return modifiedMachineCode;
+  }
+
+  /**
+   * The name of an existing operation that already satisfies the desired behavior.
+   */
+  public String getSatisfyingOperation() {
+    return satisfyingOperation;
+  }
+
+  public DistinguishingExample getDistinguishingExample() {
+    return distinguishingExample;
+  }
+
+  public long getDurationMillis() {
+    return durationMillis;
+  }
+}
@@ -0,0 +1,111 @@
+package de.hhu.stups.bsynthesis.services;
+
+import de.prob.check.StateSpaceStats;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The time series of a model checking run. The model checker reports its {@link StateSpaceStats}
+ * via {@link #update(long, StateSpaceStats)} as often as it likes, while {@link #sample()} is
+ * called at a fixed rate and derives a {@link ModelCheckingSample} from the latest stats. The
+ * rates are computed over the last {@link #RATE_WINDOW} samples to smooth them. The samples can
+ * be exported to a .csv report.
+ */
+public class ModelCheckingMetrics {
+
+  private static final int RATE_WINDOW = 10;
+
+  private final List<ModelCheckingSample> samples = new ArrayList<>();
+
+  private StateSpaceStats latestStats;
+  private long latestTimeElapsed;
+  private boolean updated;
+
+  /**
+   * Remove all samples to start a new run.
+   */
+  public synchronized void reset() {
+    samples.clear();
+    latestStats = null;
+    updated = false;
+  }
+
+  /**
+   * Store the latest stats of the model checker.
+   */
+  public synchronized void update(final long timeElapsed, final StateSpaceStats stats) {
+    latestStats = stats;
+    latestTimeElapsed = timeElapsed;
+    updated = true;
+  }
+
+  /**
+   * Add a sample for the latest stats and return it, or return null if the stats have not been
+   * updated since the last sample.
+   */
+  public synchronized ModelCheckingSample sample() {
+    if (!updated) {
+      return null;
+    }
+    updated = false;
+    final ModelCheckingSample reference =
+        samples.isEmpty() ? null : samples.get(Math.max(0, samples.size() - RATE_WINDOW));
+    final double seconds = reference == null
+        ? latestTimeElapsed / 1000.0 : (latestTimeElapsed - reference.getTimeElapsed()) / 1000.0;
+    final int processedStates = latestStats.getNrProcessedNodes();
+    final int totalStates = latestStats.getNrTotalNodes();
+    final int totalTransitions = latestStats.getNrTotalTransitions();
+    final ModelCheckingSample sample;
+    if (seconds <= 0) {
+      sample = new ModelCheckingSample(latestTimeElapsed, processedStates, totalStates,
+          totalTransitions, 0, 0, 0);
+    } else {
+      final int referenceStates = reference == null ? 0 : reference.getProcessedStates();
+      final int referenceTransitions = reference == null ? 0 : reference.getTotalTransitions();
+      final int referenceQueueSize = reference == null ? 0 : reference.getQueueSize();
+      sample = new ModelCheckingSample(latestTimeElapsed, processedStates, totalStates,
+          totalTransitions, (processedStates - referenceStates) / seconds,
+          (totalTransitions - referenceTransitions) / seconds,
+          (totalStates - processedStates - referenceQueueSize) / seconds);
+    }
+    samples.add(sample);
+    return sample;
+  }
+
+  public synchronized StateSpaceStats getLatestStats() {
+    return latestStats;
+  }
+
+  public synchronized List<ModelCheckingSample> getSamples() {
+    return new ArrayList<>(samples);
+  }
+
+  /**
+   * Write the samples to a .csv file, times are given in seconds.
+   */
+  public void writeCsv(final Path path) throws IOException {
+    final List<ModelCheckingSample> currentSamples = getSamples();
+    try (final BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+      writer.write("time,processed_states,total_states,total_transitions,queue_size,"
+          + "states_per_second,transitions_per_second,queue_growth_per_second,eta");
+      writer.newLine();
+      for (final ModelCheckingSample sample : currentSamples) {
+        writer.write(String.format(Locale.ROOT,
+            "%.3f,%d,%d,%d,%d,%.1f,%.1f,%.1f,%s", sample.getTimeElapsed() / 1000.0,
+            sample.getProcessedStates(), sample.getTotalStates(), sample.getTotalTransitions(),
+            sample.getQueueSize(), sample.getStatesPerSecond(), sample.getTransitionsPerSecond(),
+            sample.getQueueGrowthPerSecond(), sample.getEstimatedTimeRemaining() < 0 ? ""
+                : String.format(Locale.ROOT, "%.3f",
+                sample.getEstimatedTimeRemaining() / 1000.0)));
+        writer.newLine();
+      }
+    }
+  }
+}
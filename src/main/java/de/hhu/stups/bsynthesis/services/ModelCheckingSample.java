@@ -0,0 +1,92 @@
+package de.hhu.stups.bsynthesis.services;
+
+import java.util.Locale;
+
+/**
+ * A sample of the {@link ModelCheckingMetrics} taken while model checking. The rates are computed
+ * over the last samples and are given per second. The queue contains the states that have been
+ * found but not processed yet.
+ */
+public class ModelCheckingSample {
+
+  private final long timeElapsed;
+  private final int processedStates;
+  private final int totalStates;
+  private final int totalTransitions;
+  private final double statesPerSecond;
+  private final double transitionsPerSecond;
+  private final double queueGrowthPerSecond;
+
+  ModelCheckingSample(final long timeElapsed,
+                      final int processedStates,
+                      final int totalStates,
+                      final int totalTransitions,
+                      final double statesPerSecond,
+                      final double transitionsPerSecond,
+                      final double queueGrowthPerSecond) {
+    this.timeElapsed = timeElapsed;
+    this.processedStates = processedStates;
+    this.totalStates = totalStates;
+    this.totalTransitions = totalTransitions;
+    this.statesPerSecond = statesPerSecond;
+    this.transitionsPerSecond = transitionsPerSecond;
+    this.queueGrowthPerSecond = queueGrowthPerSecond;
+  }
+
+  /**
+   * The time since model checking has been started in milliseconds.
+   */
+  public long getTimeElapsed() {
+    return timeElapsed;
+  }
+
+  public int getProcessedStates() {
+    return processedStates;
+  }
+
+  public int getTotalStates() {
+    return totalStates;
+  }
+
+  public int getTotalTransitions() {
+    return totalTransitions;
+  }
+
+  public int getQueueSize() {
+    return totalStates - processedStates;
+  }
+
+  public double getStatesPerSecond() {
+    return statesPerSecond;
+  }
+
+  public double getTransitionsPerSecond() {
+    return transitionsPerSecond;
+  }
+
+  public double getQueueGrowthPerSecond() {
+    return queueGrowthPerSecond;
+  }
+
+  /**
+   * Estimate the remaining time in milliseconds until the queue is empty, assuming that it keeps
+   * shrinking at the current rate. Return -1 if the queue does not shrink.
+   */
+  public long getEstimatedTimeRemaining() {
+    if (getQueueSize() == 0) {
+      return 0;
+    }
+    if (queueGrowthPerSecond >= 0) {
+      return -1;
+    }
+    return Math.round(getQueueSize() / -queueGrowthPerSecond * 1000);
+  }
+
+  @Override
+  public String toString() {
+    final long estimatedTimeRemaining = getEstimatedTimeRemaining();
+    return String.format(Locale.ROOT, "%.0f states/s, %.0f transitions/s, ETA: %s",
+        statesPerSecond, transitionsPerSecond, estimatedTimeRemaining < 0
+            ? "unknown" : String.format(Locale.ROOT, "%.0f s", estimatedTimeRemaining / 1000.0));
+  }
+}
@@ -5,14 +5,19 @@ import com.google.inject.Singleton;
 
 import de.hhu.stups.bsynthesis.ui.components.DeadlockRepair;
 import de.hhu.stups.bsynthesis.ui.components.ModelCheckingResult;
+import de.prob.check.CBCInvariantChecker;
+import de.prob.check.CBCInvariantViolationFound;
 import de.prob.check.ConsistencyChecker;
 import de.prob.check.IModelCheckJob;
 import de.prob.check.IModelCheckListener;
 import de.prob.check.IModelCheckingResult;
 import de.prob.check.ModelCheckErrorUncovered;
+import de.prob.check.ModelCheckOk;
 import de.prob.check.ModelChecker;
 import de.prob.check.ModelCheckingOptions;
 import de.prob.check.StateSpaceStats;
+import de.prob.check.tracereplay.PersistentTrace;
+import de.prob.check.tracereplay.PersistentTransition;
 import de.prob.statespace.ITraceDescription;
 import de.prob.statespace.StateSpace;
 import de.prob.statespace.Trace;
@@ -20,22 +25,65 @@ import de.prob.statespace.Trace;
 import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ListProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleListProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.collections.FXCollections;
 
 import org.fxmisc.easybind.EasyBind;
 import org.reactfx.EventSource;
+import org.reactfx.util.FxTimer;
+import org.reactfx.util.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.Collectors;
 
 /**
  * Checks a model when a {@link StateSpace} is pushed to {@link #stateSpaceEventStream}.
  * Set {@link #runningProperty()} false to to stop the model checker. Properties {@link
  * #resultProperty()} and {@link #stateSpaceStatsProperty()} for observation.
+ * After applying a synthesized solution, the reloaded machine can be {@link #checkIncrementally
+ * checked incrementally} using the knowledge of the previous run. If {@link #swarmProperty()} is
+ * set, further checkers with diversified options run on the instances of the {@link
+ * StateSpacePool} and the first error found by any checker is reported. The stats reported by
+ * the checker are sampled at a fixed rate by the {@link ModelCheckingMetrics}.
  */
 @Singleton
 public class ModelCheckingService implements IModelCheckListener {
 
+  private static final boolean COMPLETE_INCREMENTAL_CHECK = Boolean.parseBoolean(
+      System.getProperty("bsynthesis.incrementalCheck.completeExploration", "true"));
+  private static final Duration SAMPLING_INTERVAL =
+      Duration.ofMillis(Long.getLong("bsynthesis.modelChecking.samplingInterval", 500));
+  /**
+   * The options of the checkers running on the pooled instances in addition to the default
+   * checker on the main statespace. The last two checkers only search for one kind of error.
+   */
+  private static final List<ModelCheckingOptions> SWARM_OPTIONS = Arrays.asList(
+      ModelCheckingOptions.DEFAULT.breadthFirst(true),
+      ModelCheckingOptions.DEFAULT.depthFirst(true),
+      ModelCheckingOptions.DEFAULT.checkDeadlocks(false),
+      ModelCheckingOptions.DEFAULT.checkInvariantViolations(false));
+
+  private final Logger logger = LoggerFactory.getLogger(getClass());
   private final BooleanProperty runningProperty;
   private final BooleanProperty indicatorPresentProperty;
   private final BooleanProperty invariantViolationInitialState;
@@ -46,9 +94,28 @@ public class ModelCheckingService implements IModelCheckListener {
   private final ObjectProperty<Trace> errorTraceProperty;
   private final ObjectProperty<DeadlockRepair> deadlockRepairProperty;
   private final EventSource<StateSpace> stateSpaceEventStream;
+  private final StringProperty incrementalVerdictProperty;
+  private final BooleanProperty ignoreModelCheckerProperty;
+  private final BooleanProperty swarmProperty;
+  private final ProBApiService proBApiService;
+  private final Map<String, SwarmMember> swarmMembers;
+  private final AtomicBoolean resultReported;
+  /**
+   * Incremented whenever model checking is started or reset, so that results of a previous run are
+   * dropped.
+   */
+  private final AtomicInteger runCount;
+  private final IntegerProperty counterexampleLimitProperty;
+  private final ListProperty<Trace> errorTracesProperty;
+  private final ModelCheckingMetrics metrics;
+  private final ObjectProperty<ModelCheckingSample> currentSampleProperty;
+  private final Timer samplingTimer;
 
-  private ModelChecker checker;
-  private IModelCheckJob currentJob;
+  private volatile ModelChecker checker;
+  private volatile IModelCheckJob currentJob;
+  private volatile boolean stopped;
+  private PersistentTrace previousErrorTrace;
+  private List<String> modifiedOperations;
 
   /**
    * Initialize the properties. Set listeners to {@link #stopModelChecking() stop model checking} as
@@ -56,7 +123,8 @@ public class ModelCheckingService implements IModelCheckListener {
    * StateSpace} to the {@link #stateSpaceEventStream}.
    */
   @Inject
-  public ModelCheckingService() {
+  public ModelCheckingService(final ProBApiService proBApiService) {
+    this.proBApiService = proBApiService;
     runningProperty = new SimpleBooleanProperty(false);
     resultProperty = new SimpleObjectProperty<>();
     stateSpaceStatsProperty = new SimpleObjectProperty<>();
@@ -67,33 +135,49 @@ public class ModelCheckingService implements IModelCheckListener {
     stateSpaceEventStream = new EventSource<>();
     deadlockRepairProperty = new SimpleObjectProperty<>();
     invariantViolationInitialState = new SimpleBooleanProperty(false);
+    incrementalVerdictProperty = new SimpleStringProperty("");
+    ignoreModelCheckerProperty = new SimpleBooleanProperty(false);
+    swarmProperty = new SimpleBooleanProperty(Boolean.getBoolean("bsynthesis.modelChecking.swarm"));
+    swarmMembers = new ConcurrentHashMap<>();
+    resultReported = new AtomicBoolean();
+    runCount = new AtomicInteger();
+    counterexampleLimitProperty = new SimpleIntegerProperty(
+        Integer.getInteger("bsynthesis.modelChecking.counterexamples", 1));
+    errorTracesProperty = new SimpleListProperty<>(FXCollections.observableArrayList());
+    metrics = new ModelCheckingMetrics();
+    currentSampleProperty = new SimpleObjectProperty<>();
+    samplingTimer = FxTimer.createPeriodic(SAMPLING_INTERVAL, this::sampleStats);
 
     EasyBind.subscribe(runningProperty, aBoolean -> {
-      if (!aBoolean && resultProperty.isNull().get()) {
+      if (aBoolean) {
+        samplingTimer.restart();
+        return;
+      }
+      samplingTimer.stop();
+      sampleStats();
+      if (resultProperty.isNull().get()) {
         stopModelChecking();
       }
     });
 
     stateSpaceEventStream.subscribe(stateSpace -> {
       if (stateSpace != null) {
+        metrics.reset();
+        currentSampleProperty.set(null);
         runningProperty().set(true);
+        resultReported.set(false);
+        runCount.incrementAndGet();
+        stopped = false;
         final IModelCheckJob modelCheckingJob =
             new ConsistencyChecker(stateSpace, ModelCheckingOptions.DEFAULT, null, this);
         currentJob = modelCheckingJob;
         checker = new ModelChecker(modelCheckingJob);
         checker.start();
+        if (swarmProperty.get()) {
+          startSwarm();
+        }
       }
     });
-
-    EasyBind.subscribe(stateSpaceStatsProperty, stateSpaceStats -> {
-      if (stateSpaceStats == null) {
-        return;
-      }
-      Platform.runLater(() -> {
-        processedNodesProperty.set(stateSpaceStats.getNrProcessedNodes());
-        totalNodesProperty.set(stateSpaceStats.getNrTotalNodes());
-      });
-    });
   }
 
   @Override
@@ -101,7 +185,27 @@ public class ModelCheckingService implements IModelCheckListener {
                           final long timeElapsed,
                           final IModelCheckingResult result,
                           final StateSpaceStats stats) {
-    stateSpaceStatsProperty.set(stats);
+    if (currentJob == null || !currentJob.getJobId().equals(jobId)) {
+      // only the progress of the checker on the main statespace is shown, swarm members might
+      // still send stats after they have been removed
+      return;
+    }
+    metrics.update(timeElapsed, stats);
+  }
+
+  /**
+   * Take a sample of the latest stats and update the properties on the JavaFX application
+   * thread.
+   */
+  private void sampleStats() {
+    final ModelCheckingSample sample = metrics.sample();
+    if (sample == null) {
+      return;
+    }
+    currentSampleProperty.set(sample);
+    stateSpaceStatsProperty.set(metrics.getLatestStats());
+    processedNodesProperty.set(sample.getProcessedStates());
+    totalNodesProperty.set(sample.getTotalStates());
   }
 
   @Override
@@ -109,21 +213,34 @@ public class ModelCheckingService implements IModelCheckListener {
                          final long timeElapsed,
                          final IModelCheckingResult result,
                          final StateSpaceStats stats) {
+    final SwarmMember swarmMember = swarmMembers.get(jobId);
+    if (swarmMember != null) {
+      handleSwarmResult(jobId, swarmMember, result);
+      return;
+    }
+    if (currentJob == null || !currentJob.getJobId().equals(jobId)) {
+      // a cancelled checker
+      return;
+    }
+    metrics.update(timeElapsed, stats);
     if (result instanceof ITraceDescription) {
       // error found
+      if (!resultReported.compareAndSet(false, true)) {
+        return;
+      }
+      stopSwarm();
       final ModelCheckErrorUncovered errorUncovered = (ModelCheckErrorUncovered) result;
       final StateSpace s = checker.getStateSpace();
-      Platform.runLater(() -> {
-        final Trace trace = ((ITraceDescription) result).getTrace(s);
-        errorTraceProperty.set(trace);
-        resultProperty.set(new ModelCheckingResult(trace,
-            UncoveredError.getUncoveredErrorFromMessage(errorUncovered.getMessage())));
-        runningProperty.set(false);
-      });
+      reportError(((ITraceDescription) result).getTrace(s),
+          UncoveredError.getUncoveredErrorFromMessage(errorUncovered.getMessage()));
       return;
     }
     if (stats.getNrProcessedNodes() == stats.getNrTotalNodes()) {
       // the model has been checked completely and no error has been found
+      if (!resultReported.compareAndSet(false, true)) {
+        return;
+      }
+      stopSwarm();
       Platform.runLater(() -> {
         errorTraceProperty.set(null);
         resultProperty.set(new ModelCheckingResult(null));
@@ -132,7 +249,282 @@ public class ModelCheckingService implements IModelCheckListener {
     }
   }
 
+  /**
+   * Report the given error trace as the result. If more than one counterexample should be
+   * collected for an invariant violation, we continue checking the main statespace until
+   * {@link #counterexampleLimitProperty()} traces leading to distinct violating states have been
+   * found or there is no further violation. All traces are reported at once in {@link
+   * #errorTracesProperty()}, the first one is the {@link #errorTraceProperty() error trace}. If
+   * model checking is stopped while collecting, the traces found so far are reported.
+   */
+  private void reportError(final Trace trace, final UncoveredError uncoveredError) {
+    if (!uncoveredError.isInvariantViolation() || counterexampleLimitProperty.get() <= 1) {
+      Platform.runLater(() -> setErrorResult(Collections.singletonList(trace), uncoveredError));
+      return;
+    }
+    final int run = runCount.get();
+    final int counterexampleLimit = counterexampleLimitProperty.get();
+    DaemonThread.getDaemonThread(() -> {
+      final List<Trace> traces = collectCounterexamples(trace, counterexampleLimit);
+      Platform.runLater(() -> {
+        if (run == runCount.get()) {
+          setErrorResult(traces, uncoveredError);
+        }
+      });
+    }).start();
+  }
+
+  private void setErrorResult(final List<Trace> traces, final UncoveredError uncoveredError) {
+    final Trace trace = traces.get(0);
+    errorTracesProperty.setAll(traces);
+    errorTraceProperty.set(trace);
+    resultProperty.set(new ModelCheckingResult(trace, uncoveredError));
+    runningProperty.set(false);
+  }
+
+  /**
+   * Continue checking for invariant violations on the statespace of the given trace and return
+   * at most the given amount of traces to distinct violating states, starting with the given one.
+   */
+  private List<Trace> collectCounterexamples(final Trace firstTrace,
+                                             final int counterexampleLimit) {
+    final StateSpace stateSpace = firstTrace.getStateSpace();
+    final Map<String, Trace> tracesByState = new LinkedHashMap<>();
+    tracesByState.put(firstTrace.getCurrentState().getId(), firstTrace);
+    while (tracesByState.size() < counterexampleLimit && !stopped) {
+      final IModelCheckJob modelCheckingJob = new ConsistencyChecker(stateSpace,
+          ModelCheckingOptions.DEFAULT.checkDeadlocks(false), null, null);
+      currentJob = modelCheckingJob;
+      checker = new ModelChecker(modelCheckingJob);
+      checker.start();
+      final IModelCheckingResult result = checker.getResult();
+      if (!(result instanceof ModelCheckErrorUncovered)) {
+        // the state space has been checked completely or checking has been cancelled
+        break;
+      }
+      final Trace trace = ((ITraceDescription) result).getTrace(stateSpace);
+      if (tracesByState.putIfAbsent(trace.getCurrentState().getId(), trace) != null) {
+        break;
+      }
+    }
+    logger.info("Collected {} counterexamples.", tracesByState.size());
+    return new ArrayList<>(tracesByState.values());
+  }
+
+  /**
+   * Start a checker for each of the {@link #SWARM_OPTIONS} on an instance of the {@link
+   * StateSpacePool}, limited by the pool's maximum size.
+   */
+  private void startSwarm() {
+    final StateSpacePool stateSpacePool = proBApiService.getStateSpacePool();
+    final int swarmSize =
+        Math.min(SWARM_OPTIONS.size(), stateSpacePool.maximumSizeProperty().get());
+    for (int i = 0; i < swarmSize; i++) {
+      final ModelCheckingOptions options = SWARM_OPTIONS.get(i);
+      stateSpacePool.acquire().whenComplete((stateSpace, throwable) -> {
+        if (stateSpace != null) {
+          startSwarmMember(stateSpace, options);
+        } else if (!(throwable instanceof CancellationException)) {
+          logger.warn("Swarm model checking with {} has not been started.", options, throwable);
+        }
+      });
+    }
+  }
+
+  private void startSwarmMember(final StateSpace stateSpace, final ModelCheckingOptions options) {
+    synchronized (swarmMembers) {
+      if (resultReported.get() || !runningProperty.get()) {
+        // the instance has been acquired after model checking has finished
+        proBApiService.getStateSpacePool().release(stateSpace);
+        return;
+      }
+      final IModelCheckJob modelCheckingJob =
+          new ConsistencyChecker(stateSpace, options, null, this);
+      final ModelChecker swarmChecker = new ModelChecker(modelCheckingJob);
+      swarmMembers.put(modelCheckingJob.getJobId(),
+          new SwarmMember(swarmChecker, stateSpace, options));
+      swarmChecker.start();
+    }
+    logger.info("Started swarm model checking with {}.", options);
+  }
+
+  /**
+   * Report the first error found by a checker on a pooled instance after replaying its trace on
+   * the main statespace. If a checker terminates without error, its instance is released. A
+   * checker that only searches for one kind of error cannot report the absence of errors, so that
+   * this is only reported by the checker on the main statespace.
+   */
+  private void handleSwarmResult(final String jobId,
+                                 final SwarmMember swarmMember,
+                                 final IModelCheckingResult result) {
+    if (result instanceof ITraceDescription && !resultReported.get()) {
+      final PersistentTrace persistentTrace = new PersistentTrace(
+          ((ITraceDescription) result).getTrace(swarmMember.stateSpace));
+      final Trace trace = replayTrace(currentJob.getStateSpace(), persistentTrace);
+      if (trace == null) {
+        logger.warn("Could not replay the error trace found with {}.", swarmMember.options);
+      } else if (resultReported.compareAndSet(false, true)) {
+        logger.info("Swarm model checking with {} found the first error.", swarmMember.options);
+        checker.cancel();
+        stopSwarm();
+        reportError(trace, UncoveredError.getUncoveredErrorFromMessage(
+            ((ModelCheckErrorUncovered) result).getMessage()));
+      }
+    }
+    releaseSwarmMember(jobId);
+  }
+
+  private void stopSwarm() {
+    synchronized (swarmMembers) {
+      new ArrayList<>(swarmMembers.keySet()).forEach(jobId -> {
+        final SwarmMember swarmMember = swarmMembers.get(jobId);
+        swarmMember.checker.cancel();
+        swarmMember.stateSpace.sendInterrupt();
+        releaseSwarmMember(jobId);
+      });
+    }
+  }
+
+  private void releaseSwarmMember(final String jobId) {
+    final SwarmMember swarmMember = swarmMembers.remove(jobId);
+    if (swarmMember != null) {
+      proBApiService.getStateSpacePool().release(swarmMember.stateSpace);
+    }
+  }
+
+  /**
+   * Remember the error trace of the previous run and the operations modified by a synthesized
+   * solution before the machine is reloaded. An empty list of operations means that the
+   * invariants have been modified, which affects all operations. The next statespace passed to
+   * {@link #checkIncrementally(StateSpace)} is checked incrementally.
+   */
+  public void prepareIncrementalCheck(final Trace errorTrace,
+                                      final List<String> modifiedOperations) {
+    previousErrorTrace = errorTrace == null ? null : new PersistentTrace(errorTrace);
+    this.modifiedOperations = modifiedOperations;
+  }
+
+  /**
+   * Forget a {@link #prepareIncrementalCheck(Trace, List) prepared} incremental check, e.g., if
+   * the modified machine could not be loaded.
+   */
+  public void cancelIncrementalCheck() {
+    previousErrorTrace = null;
+    modifiedOperations = null;
+  }
+
+  /**
+   * Check the given statespace incrementally if {@link #prepareIncrementalCheck(Trace, List)} has
+   * been called before. At first, we replay the previous error trace and check the modified
+   * operations using constraint based invariant checking, which provides a fast verdict in
+   * {@link #incrementalVerdictProperty()}. If the previous error is still present, it is set as
+   * the {@link #resultProperty() result}. Otherwise, the state space is explored completely
+   * unless disabled by the system property bsynthesis.incrementalCheck.completeExploration.
+   * Nothing is checked if the model checker is {@link #ignoreModelCheckerProperty() ignored}.
+   */
+  public void checkIncrementally(final StateSpace stateSpace) {
+    if (!Platform.isFxApplicationThread()) {
+      Platform.runLater(() -> checkIncrementally(stateSpace));
+      return;
+    }
+    if (stateSpace == null || modifiedOperations == null) {
+      return;
+    }
+    final PersistentTrace errorTrace = previousErrorTrace;
+    final List<String> operations = modifiedOperations;
+    cancelIncrementalCheck();
+    if (ignoreModelCheckerProperty.get()) {
+      return;
+    }
+    indicatorPresentProperty.set(true);
+    runningProperty.set(true);
+    incrementalVerdictProperty.set("Checking the modified operations.");
+    DaemonThread.getDaemonThread(() -> {
+      final Trace reproducedErrorTrace = replayErrorTrace(stateSpace, errorTrace);
+      if (reproducedErrorTrace != null) {
+        final UncoveredError uncoveredError =
+            reproducedErrorTrace.getCurrentState().isInvariantOk()
+                ? UncoveredError.DEADLOCK : UncoveredError.INVARIANT_VIOLATION;
+        Platform.runLater(() -> {
+          incrementalVerdictProperty.set("The previous error is still present.");
+          setErrorResult(Collections.singletonList(reproducedErrorTrace), uncoveredError);
+        });
+        return;
+      }
+      final String verdict = checkModifiedOperations(stateSpace, operations);
+      Platform.runLater(() -> {
+        incrementalVerdictProperty.set(verdict);
+        if (COMPLETE_INCREMENTAL_CHECK) {
+          stateSpaceEventStream.push(stateSpace);
+        } else {
+          runningProperty.set(false);
+        }
+      });
+    }).start();
+  }
+
+  /**
+   * Replay the previous error trace on the given statespace and return the replayed trace if it
+   * still leads to an invariant violation or deadlock, otherwise null.
+   */
+  private Trace replayErrorTrace(final StateSpace stateSpace, final PersistentTrace errorTrace) {
+    if (errorTrace == null) {
+      return null;
+    }
+    final Trace trace = replayTrace(stateSpace, errorTrace);
+    if (trace == null) {
+      // the modified machine does not allow the previous error trace anymore
+      return null;
+    }
+    final boolean errorReproduced = !trace.getCurrentState().explore().isInvariantOk()
+        || trace.getCurrentState().getOutTransitions().isEmpty();
+    return errorReproduced ? trace : null;
+  }
+
+  /**
+   * Replay the given trace on the given statespace by executing each operation with the same
+   * parameters and destination state. Return null if the trace cannot be replayed.
+   */
+  private Trace replayTrace(final StateSpace stateSpace, final PersistentTrace persistentTrace) {
+    Trace trace = new Trace(stateSpace);
+    try {
+      for (final PersistentTransition transition : persistentTrace.getTransitionList()) {
+        final List<String> predicates = Stream.concat(
+            transition.getParameters().entrySet().stream(),
+            transition.getDestinationStateVariables().entrySet().stream())
+            .map(value -> value.getKey() + " = " + value.getValue())
+            .collect(Collectors.toList());
+        trace = trace.addTransitionWith(transition.getOperationName(), predicates);
+      }
+    } catch (final IllegalArgumentException exception) {
+      return null;
+    }
+    return trace;
+  }
+
+  private String checkModifiedOperations(final StateSpace stateSpace,
+                                         final List<String> operations) {
+    final CBCInvariantChecker invariantChecker = operations.isEmpty()
+        ? new CBCInvariantChecker(stateSpace)
+        : new CBCInvariantChecker(stateSpace, operations);
+    try {
+      final IModelCheckingResult result = invariantChecker.call();
+      if (result instanceof CBCInvariantViolationFound) {
+        return "The modified operations possibly violate the invariant.";
+      }
+      if (result instanceof ModelCheckOk) {
+        return "The modified operations preserve the invariant.";
+      }
+      logger.info("Constraint based invariant checking returned {}.", result);
+    } catch (final Exception exception) {
+      logger.error("Error during constraint based invariant checking.", exception);
+    }
+    return "The modified operations could not be checked.";
+  }
+
   private void stopModelChecking() {
+    stopped = true;
+    stopSwarm();
     if (checker != null) {
       checker.cancel();
     }
@@ -169,19 +561,40 @@ public class ModelCheckingService implements IModelCheckListener {
    * Reset the service by setting all properties to their default values.
    */
   public void reset() {
+    runCount.incrementAndGet();
     runningProperty.set(false);
     resultProperty.set(null);
     stateSpaceStatsProperty.set(null);
+    currentSampleProperty.set(null);
     errorTraceProperty.set(null);
+    errorTracesProperty.clear();
     indicatorPresentProperty.set(false);
     invariantViolationInitialState.set(false);
     deadlockRepairProperty.set(null);
+    incrementalVerdictProperty.set("");
+    cancelIncrementalCheck();
   }
 
   public ObjectProperty<Trace> errorTraceProperty() {
     return errorTraceProperty;
   }
 
+  public ListProperty<Trace> errorTracesProperty() {
+    return errorTracesProperty;
+  }
+
+  public ModelCheckingMetrics getMetrics() {
+    return metrics;
+  }
+
+  public ObjectProperty<ModelCheckingSample> currentSampleProperty() {
+    return currentSampleProperty;
+  }
+
+  public IntegerProperty counterexampleLimitProperty() {
+    return counterexampleLimitProperty;
+  }
+
   public ObjectProperty<DeadlockRepair> deadlockRepairProperty() {
     return deadlockRepairProperty;
   }
@@ -190,7 +603,41 @@ public class ModelCheckingService implements IModelCheckListener {
     return stateSpaceEventStream;
   }
 
+  public StringProperty incrementalVerdictProperty() {
+    return incrementalVerdictProperty;
+  }
+
+  /**
+   * Do not run the model checker, e.g., automatically after applying a solution, but allow to
+   * extend the machine without a model checking result.
+   */
+  public BooleanProperty ignoreModelCheckerProperty() {
+    return ignoreModelCheckerProperty;
+  }
+
+  public BooleanProperty swarmProperty() {
+    return swarmProperty;
+  }
+
   public BooleanProperty invariantViolationInitialState() {
     return invariantViolationInitialState;
   }
+
+  /**
+   * A checker running on an instance of the {@link StateSpacePool}.
+   */
+  private static final class SwarmMember {
+
+    private final ModelChecker checker;
+    private final StateSpace stateSpace;
+    private final ModelCheckingOptions options;
+
+    private SwarmMember(final ModelChecker checker,
+                        final StateSpace stateSpace,
+                        final ModelCheckingOptions options) {
+      this.checker = checker;
+      this.stateSpace = stateSpace;
+      this.options = options;
+    }
+  }
 }
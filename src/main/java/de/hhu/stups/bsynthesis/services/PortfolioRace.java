@@ -0,0 +1,48 @@
+package de.hhu.stups.bsynthesis.services;
+
+import de.hhu.stups.bsynthesis.prob.StartSynthesisCommand;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link StartSynthesisCommand commands} running the same library expansion on different
+ * {@link SolverBackend solver backends} in portfolio mode. The first command to either find a
+ * solution or a distinguishing example {@link #decide(StartSynthesisCommand) decides} the race.
+ */
+final class PortfolioRace {
+
+  private final List<StartSynthesisCommand> startSynthesisCommands = new ArrayList<>();
+  private final Set<StartSynthesisCommand> failedCommands = new HashSet<>();
+  private StartSynthesisCommand winner;
+
+  synchronized void addCommand(final StartSynthesisCommand startSynthesisCommand) {
+    startSynthesisCommands.add(startSynthesisCommand);
+  }
+
+  /**
+   * Let the given command win the race and return the rival commands, or return an empty list if
+   * the race has already been decided.
+   */
+  synchronized List<StartSynthesisCommand> decide(
+      final StartSynthesisCommand startSynthesisCommand) {
+    if (winner != null) {
+      return new ArrayList<>();
+    }
+    winner = startSynthesisCommand;
+    return startSynthesisCommands.stream()
+        .filter(command -> command != startSynthesisCommand)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Mark the given command as failed and return true if all commands of this race have failed.
+   */
+  synchronized boolean fail(final StartSynthesisCommand startSynthesisCommand) {
+    failedCommands.add(startSynthesisCommand);
+    return failedCommands.size() == startSynthesisCommands.size();
+  }
+}
@@ -0,0 +1,62 @@
+package de.hhu.stups.bsynthesis.services;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Win and loss statistics of the {@link SolverBackend solver backends} racing each other in
+ * portfolio mode. A backend wins a race if it is the first to either find a solution or a
+ * distinguishing example for a library expansion, the other backends lose the race.
+ */
+public class PortfolioStatistics {
+
+  private final Map<SolverBackend, Integer> wins = new EnumMap<>(SolverBackend.class);
+  private final Map<SolverBackend, Integer> losses = new EnumMap<>(SolverBackend.class);
+
+  /**
+   * Record that the given backend won a race against the given other backends.
+   */
+  public synchronized void recordWin(final SolverBackend winner,
+                                     final List<SolverBackend> losers) {
+    wins.merge(winner, 1, Integer::sum);
+    losers.forEach(loser -> losses.merge(loser, 1, Integer::sum));
+  }
+
+  public synchronized int getWins(final SolverBackend solverBackend) {
+    return wins.getOrDefault(solverBackend, 0);
+  }
+
+  public synchronized int getLosses(final SolverBackend solverBackend) {
+    return losses.getOrDefault(solverBackend, 0);
+  }
+
+  /**
+   * The smoothed win rate of the given backend which is 0.5 as long as no race has been decided.
+   */
+  public synchronized double getWinRate(final SolverBackend solverBackend) {
+    final int backendWins = getWins(solverBackend);
+    return (backendWins + 1.0) / (backendWins + getLosses(solverBackend) + 2.0);
+  }
+
+  /**
+   * All backends ordered by their win rate starting with the most successful one. Backends are
+   * scheduled in this order so that the favored backend gets an idle statespace first.
+   */
+  public synchronized List<SolverBackend> getPreferredOrder() {
+    return Arrays.stream(SolverBackend.values())
+        .sorted(Comparator.comparingDouble(this::getWinRate).reversed())
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public synchronized String toString() {
+    return Arrays.stream(SolverBackend.values())
+        .map(solverBackend -> solverBackend + ": " + getWins(solverBackend) + " won, "
+            + getLosses(solverBackend) + " lost")
+        .collect(Collectors.joining(", "));
+  }
+}
@@ -1,12 +1,16 @@
 package de.hhu.stups.bsynthesis.services;
 
+import com.google.common.collect.Lists;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
+import de.hhu.stups.bsynthesis.prob.CachedSynthesisResult;
 import de.hhu.stups.bsynthesis.prob.DistinguishingExample;
+import de.hhu.stups.bsynthesis.prob.FindStatesCommand;
 import de.hhu.stups.bsynthesis.prob.ResetSynthesisCommand;
 import de.hhu.stups.bsynthesis.prob.StartSynthesisCommand;
 import de.hhu.stups.bsynthesis.ui.SynthesisType;
+import de.hhu.stups.bsynthesis.ui.components.library.BLibrary;
 import de.hhu.stups.bsynthesis.ui.components.nodes.BasicNode;
 import de.hhu.stups.bsynthesis.ui.components.nodes.NodeState;
 import de.hhu.stups.bsynthesis.ui.components.nodes.StateNode;
@@ -25,16 +29,13 @@ import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.MapProperty;
 import javafx.beans.property.ObjectProperty;
-import javafx.beans.property.SetProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleMapProperty;
 import javafx.beans.property.SimpleObjectProperty;
-import javafx.beans.property.SimpleSetProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.FXCollections;
-import javafx.concurrent.Task;
 import javafx.geometry.Point2D;
 import javafx.scene.control.Alert;
 import javafx.stage.FileChooser;
@@ -44,18 +45,29 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
- * A service providing a {@link #mainStateSpaceProperty main statespace} as well as an amount of
- * {@link #INSTANCES} further {@link StateSpace statespaces}. We run computations on the
- * {@link #stateSpacesProperty further instances} and use the
+ * A service providing a {@link #mainStateSpaceProperty main statespace} as well as an elastic
+ * {@link StateSpacePool pool} of further {@link StateSpace statespaces}. We run computations on the
+ * {@link #stateSpacePool further instances} and use the
  * {@link #mainStateSpaceProperty main statespace} for synchronization in case we find a solution.
  * All {@link StateSpace statespaces} have loaded the same model and are in the same state in case
  * synthesis is not running and has not been suspended.
@@ -63,14 +75,18 @@ import java.util.stream.IntStream;
 @Singleton
 public class ProBApiService {
 
-  private static final int INSTANCES = 4;
+  private static final int VERIFICATION_CHUNK_SIZE = 25;
+  private static final int CORE_EXAMPLES =
+      Integer.getInteger("bsynthesis.synthesis.coreExamples", 5);
 
-  private final ExecutorService threadPoolExecutor = Executors.newWorkStealingPool(INSTANCES);
+  private final ExecutorService threadPoolExecutor =
+      Executors.newCachedThreadPool(DaemonThread::getDaemonThread);
   private final Logger logger = LoggerFactory.getLogger(getClass());
   private final EventSource<StartSynthesisCommand> startSynthesisEventSource;
   private final ObjectProperty<StateSpace> mainStateSpaceProperty;
-  private final ConcurrentHashMap<Task<Void>, StateSpace> synthesisTasksMap;
-  private final SetProperty<StateSpace> stateSpacesProperty;
+  private final ConcurrentHashMap<SynthesisTask, StateSpace> synthesisTasksMap;
+  private final StateSpacePool stateSpacePool;
+  private final PriorityBlockingQueue<SynthesisJob> synthesisJobQueue;
   private final MapProperty<StateSpace, Integer> suspendedStateSpacesMap;
   private final BooleanProperty synthesisSucceededProperty;
   private final BooleanProperty synthesisRunningProperty;
@@ -80,9 +96,19 @@ public class ProBApiService {
   private final StringProperty behaviorSatisfiedProperty;
   private final Api proBApi;
   private final UiService uiService;
-  private final Queue<StateSpace> idleStateSpaceQueue;
   private final IntegerProperty currentLibraryExpansionProperty;
   private final BooleanProperty useSingleThreadProperty;
+  private final BooleanProperty usePortfolioProperty;
+  private final BooleanProperty minimizeExamplesProperty;
+  private final PortfolioStatistics portfolioStatistics;
+  private final Map<StartSynthesisCommand, PortfolioRace> portfolioRacesMap;
+  private final Map<StartSynthesisCommand, SynthesisTask> portfolioTasksMap;
+  private final Map<StateSpace, SolverBackend> suspendedSolverBackendsMap;
+  private final SynthesisResultCache synthesisResultCache;
+  private final ObjectProperty<DistinguishingExample> distinguishingExampleProperty;
+  private final AtomicInteger runningExampleVerifications;
+
+  private volatile boolean headless;
 
   /**
    * Initialize properties and the injected {@link Api}.
@@ -95,18 +121,28 @@ public class ProBApiService {
     startSynthesisEventSource = new EventSource<>();
     startSynthesisEventSource.subscribe(this::startSynthesis);
     mainStateSpaceProperty = new SimpleObjectProperty<>();
-    stateSpacesProperty = new SimpleSetProperty<>(FXCollections.observableSet());
+    stateSpacePool = new StateSpacePool(this::loadStateSpace, file -> failedLoadingModel());
+    synthesisJobQueue = new PriorityBlockingQueue<>();
     synthesisSucceededProperty = new SimpleBooleanProperty(false);
     synthesisRunningProperty = new SimpleBooleanProperty(false);
     modifiedMachineCodeProperty = new SimpleStringProperty();
     behaviorSatisfiedProperty = new SimpleStringProperty();
     synthesisTasksMap = new ConcurrentHashMap<>();
-    idleStateSpaceQueue = new LinkedBlockingQueue<>();
     currentLibraryExpansionProperty = new SimpleIntegerProperty();
     suspendedStateSpacesMap = new SimpleMapProperty<>(FXCollections.observableHashMap());
     synthesisSuspendedProperty = new SimpleBooleanProperty();
     userEvaluatedSolutionProperty = new SimpleBooleanProperty();
     useSingleThreadProperty = new SimpleBooleanProperty();
+    usePortfolioProperty = new SimpleBooleanProperty();
+    minimizeExamplesProperty = new SimpleBooleanProperty(
+        Boolean.getBoolean("bsynthesis.synthesis.minimizeExamples"));
+    portfolioStatistics = new PortfolioStatistics();
+    portfolioRacesMap = new ConcurrentHashMap<>();
+    portfolioTasksMap = new ConcurrentHashMap<>();
+    suspendedSolverBackendsMap = new ConcurrentHashMap<>();
+    synthesisResultCache = new SynthesisResultCache();
+    distinguishingExampleProperty = new SimpleObjectProperty<>();
+    runningExampleVerifications = new AtomicInteger();
   }
 
   /**
@@ -118,20 +154,12 @@ public class ProBApiService {
     }
     final StateSpace stateSpace = loadStateSpace(file);
     if (stateSpace == null) {
+      failedLoadingModel();
       return null;
     }
     mainStateSpaceProperty.set(stateSpace);
-    stateSpacesProperty.clear();
-    idleStateSpaceQueue.clear();
-    // load the same model to several instances in a background thread
-    DaemonThread.getDaemonThread(() ->
-        IntStream.range(0, INSTANCES).forEach(value -> {
-          final StateSpace newStateSpace = loadStateSpace(file);
-          if (newStateSpace != null) {
-            stateSpacesProperty.add(newStateSpace);
-            idleStateSpaceQueue.add(newStateSpace);
-          }
-        })).start();
+    // load the same model to the pooled instances in the background
+    stateSpacePool.reset(file);
     return hasClassicalBExtension(file) ? SpecificationType.CLASSICAL_B : SpecificationType.EVENT_B;
   }
 
@@ -144,19 +172,19 @@ public class ProBApiService {
       }
     } catch (final ProBError proBError) {
       logger.error("ProBError while loading " + file.getPath(), proBError);
-      failedLoadingModel();
     } catch (final IOException exception) {
       logger.error("IOException while loading " + file.getPath(), exception);
-      failedLoadingModel();
     } catch (final ModelTranslationError modelTranslationError) {
       logger.error("Translation error while loading " + file.getPath(),
           modelTranslationError);
-      failedLoadingModel();
     }
     return null;
   }
 
   private void failedLoadingModel() {
+    if (headless) {
+      return;
+    }
     Platform.runLater(() -> {
       final Alert alert = new Alert(Alert.AlertType.ERROR);
       alert.setTitle("Machine could not be loaded");
@@ -175,19 +203,81 @@ public class ProBApiService {
   }
 
   /**
-   * Synchronize the {@link #stateSpacesProperty} with the {@link #mainStateSpaceProperty}.
+   * Synchronize the {@link #stateSpacePool} with the {@link #mainStateSpaceProperty}, i.e., make
+   * sure that the pool provides at least its minimum amount of instances of the main statespace's
+   * model.
    */
   public void synchronizeStateSpaces() {
-    stateSpacesProperty.clear();
-    IntStream.range(0, INSTANCES).forEach(value ->
-        stateSpacesProperty.add(mainStateSpaceProperty.get()));
+    final StateSpace mainStateSpace = mainStateSpaceProperty.get();
+    if (mainStateSpace == null) {
+      return;
+    }
+    if (stateSpacePool.sizeProperty().get() == 0 && stateSpacePool.loadingProperty().get() == 0) {
+      stateSpacePool.reset(mainStateSpace.getModel().getModelFile());
+    }
+    stateSpacePool.ensureCapacity(stateSpacePool.minimumSizeProperty().get());
     logger.info("Synchronized statespaces in the ProBApiService used for synthesis.");
   }
 
+  public StateSpacePool getStateSpacePool() {
+    return stateSpacePool;
+  }
+
   StateSpace getMainStateSpace() {
     return mainStateSpaceProperty.get();
   }
 
+  /**
+   * Verify the given state equality predicates, i.e., find a state of the main statespace for each
+   * predicate, in the background. The predicates are verified in chunks using a single call to
+   * prolog per chunk and the given consumer is notified about the amount of verified predicates
+   * after each chunk. The states have to be found on the main statespace anyway since the nodes
+   * refer to them, so that pooled instances would only duplicate the work.
+   */
+  public CompletableFuture<StateVerification> verifyStates(
+      final Collection<String> stateEqualities,
+      final IntConsumer progressConsumer) {
+    final StateSpace mainStateSpace = getMainStateSpace();
+    final List<String> distinctStateEqualities =
+        stateEqualities.stream().distinct().collect(Collectors.toList());
+    final Map<String, FindStateCommand.ResultType> results = new HashMap<>();
+    final Map<String, State> states = new HashMap<>();
+    if (mainStateSpace == null || distinctStateEqualities.isEmpty()) {
+      return CompletableFuture.completedFuture(new StateVerification(results, states));
+    }
+    return CompletableFuture.supplyAsync(() -> {
+      int verifiedStates = 0;
+      for (final List<String> chunk
+          : Lists.partition(distinctStateEqualities, VERIFICATION_CHUNK_SIZE)) {
+        verifyChunk(mainStateSpace, chunk, results, states);
+        verifiedStates += chunk.size();
+        progressConsumer.accept(verifiedStates);
+      }
+      return new StateVerification(results, states);
+    }, threadPoolExecutor);
+  }
+
+  private void verifyChunk(final StateSpace mainStateSpace,
+                           final List<String> chunk,
+                           final Map<String, FindStateCommand.ResultType> results,
+                           final Map<String, State> states) {
+    final FindStatesCommand findStatesCommand = new FindStatesCommand(mainStateSpace, chunk);
+    try {
+      mainStateSpace.execute(findStatesCommand);
+    } catch (final ProBError proBError) {
+      logger.error("Error verifying states.", proBError);
+      return;
+    }
+    final List<FindStateCommand.ResultType> chunkResults = findStatesCommand.getResults();
+    final List<State> chunkStates = findStatesCommand.getStates();
+    for (int i = 0; i < chunk.size(); i++) {
+      results.put(chunk.get(i), chunkResults.get(i));
+      if (chunkStates.get(i) != null) {
+        states.put(chunk.get(i), chunkStates.get(i));
+      }
+    }
+  }
+
   public EventSource<StartSynthesisCommand> startSynthesisEventSource() {
     return startSynthesisEventSource;
   }
@@ -196,11 +286,18 @@ public class ProBApiService {
     return synthesisRunningProperty;
   }
 
-  BooleanProperty synthesisSucceededProperty() {
+  public BooleanProperty synthesisSucceededProperty() {
     return synthesisSucceededProperty;
   }
 
   private void startSynthesis(final StartSynthesisCommand startSynthesisCommand) {
+    if (applyCachedResult(startSynthesisCommand)) {
+      return;
+    }
+    if (minimizeExamplesProperty.get() && canVerifyExamples()
+        && startSynthesisCommand.minimizeExamples(CORE_EXAMPLES)) {
+      logger.info("Start synthesis from a core of the examples.");
+    }
     currentLibraryExpansionProperty.set(startSynthesisCommand.getLibraryExpansion());
     synthesisRunningProperty.set(true);
     synthesisSuspendedProperty.set(false);
@@ -216,84 +313,286 @@ public class ProBApiService {
     startSynthesisParallel(startSynthesisCommand);
   }
 
+  /**
+   * Look up the result of the given command in the {@link #synthesisResultCache} and, if there is
+   * one, provide it as if synthesis has just finished without scheduling any synthesis task.
+   */
+  private boolean applyCachedResult(final StartSynthesisCommand startSynthesisCommand) {
+    final String machineCode = getMainMachineCode();
+    if (machineCode == null || startSynthesisCommand.isImplicitIf()) {
+      return false;
+    }
+    final CachedSynthesisResult cachedResult = synthesisResultCache.get(
+        startSynthesisCommand.computeFingerprint(machineCode));
+    if (cachedResult == null) {
+      return false;
+    }
+    logger.info("Using the cached synthesis result {}.", startSynthesisCommand.getFingerprint());
+    synthesisSuspendedProperty.set(false);
+    synthesisSucceededProperty.set(true);
+    synthesisRunningProperty.set(false);
+    if (CachedSynthesisResult.Kind.BEHAVIOR_SATISFIED.equals(cachedResult.getKind())) {
+      modifiedMachineCodeProperty.set("none");
+      behaviorSatisfiedProperty.set(cachedResult.getValue());
+    } else {
+      modifiedMachineCodeProperty.set(cachedResult.getValue());
+    }
+    return true;
+  }
+
+  /**
+   * Synthesized programs can only be verified against the examples for classical B machines, which
+   * is required to synthesize from a core of the examples.
+   */
+  private boolean canVerifyExamples() {
+    final StateSpace mainStateSpace = mainStateSpaceProperty.get();
+    return mainStateSpace != null && mainStateSpace.getModel().getModelFile() != null
+        && hasClassicalBExtension(mainStateSpace.getModel().getModelFile());
+  }
+
+  /**
+   * Return the content of the main statespace's machine file or null if it cannot be read.
+   */
+  private String getMainMachineCode() {
+    final StateSpace mainStateSpace = mainStateSpaceProperty.get();
+    if (mainStateSpace == null || mainStateSpace.getModel().getModelFile() == null) {
+      return null;
+    }
+    try {
+      return new String(Files.readAllBytes(mainStateSpace.getModel().getModelFile().toPath()),
+          StandardCharsets.UTF_8);
+    } catch (final IOException exception) {
+      logger.error("Error reading the machine code for the synthesis result cache.", exception);
+      return null;
+    }
+  }
+
   private void startSynthesisParallel(final StartSynthesisCommand startSynthesisCommand) {
-    logger.info("Starting synthesis on several instances. "
-        + "Available statespace instances: {}", idleStateSpaceQueue);
-    IntStream.range(0, INSTANCES).forEach(value -> {
+    // library expansions that have not been dispatched before synthesis has been suspended
+    final List<Integer> queuedLibraryExpansions = drainSynthesisJobQueue();
+    if (suspendedStateSpacesMap.isEmpty()) {
+      // a new synthesis run tries each library expansion up to the maximum
+      queuedLibraryExpansions.clear();
+      IntStream.rangeClosed(startSynthesisCommand.getLibraryExpansion(),
+          BLibrary.MAXIMUM_LIBRARY_EXPANSION).forEach(queuedLibraryExpansions::add);
+      currentLibraryExpansionProperty.set(BLibrary.MAXIMUM_LIBRARY_EXPANSION);
+    }
+    logger.info("Starting synthesis on several instances. Queued library expansions: {}, "
+        + "idle statespace instances: {}", queuedLibraryExpansions,
+        stateSpacePool.idleProperty().get());
+    // restart the suspended statespaces with their specific library expansion
+    final Map<StateSpace, Integer> suspendedStateSpaces = new HashMap<>(suspendedStateSpacesMap);
+    suspendedStateSpacesMap.clear();
+    suspendedStateSpaces.forEach((stateSpace, libraryExpansion) -> {
+      final StartSynthesisCommand copiedCommand = new StartSynthesisCommand(startSynthesisCommand,
+          getSuspendedSolverBackend(stateSpace, startSynthesisCommand));
+      copiedCommand.setLibraryExpansion(libraryExpansion);
+      runSynthesisTask(stateSpace, copiedCommand);
+    });
+    // the remaining library expansions are dispatched as soon as statespaces become idle, the pool
+    // grows if more library expansions are queued than instances are idle
+    queuedLibraryExpansions.forEach(libraryExpansion -> {
       final StartSynthesisCommand copiedCommand = new StartSynthesisCommand(startSynthesisCommand);
-      final StateSpace stateSpace;
-      if (suspendedStateSpacesMap.isEmpty()) {
-        // start a new instance with the current library expansion
-        copiedCommand.setLibraryExpansion(currentLibraryExpansionProperty.get());
-        stateSpace = idleStateSpaceQueue.poll();
-        if (stateSpace == null) {
-          // TODO: save this startsynthesiscommand if it could not be executed right now?
-          return;
-        }
-        logger.info("Start synthesis instance {}.", value);
-      } else {
-        // or restart a suspended statespace with its specific library expansion
-        final Map.Entry<StateSpace, Integer> suspendedEntry =
-            suspendedStateSpacesMap.entrySet().iterator().next();
-        copiedCommand.setLibraryExpansion(suspendedEntry.getValue());
-        stateSpace = suspendedEntry.getKey();
-        suspendedStateSpacesMap.remove(suspendedEntry.getKey());
-      }
-      final Task<Void> synthesisTask = getSynthesisTask(stateSpace, copiedCommand);
-      synthesisTasksMap.put(synthesisTask, stateSpace);
-      threadPoolExecutor.execute(synthesisTask);
-      startSynthesisCommand.expandLibrary();
-      currentLibraryExpansionProperty.set(startSynthesisCommand.getLibraryExpansion());
+      copiedCommand.setLibraryExpansion(libraryExpansion);
+      enqueueSynthesisJob(copiedCommand);
     });
   }
 
   private void startSynthesisSingleInstance(final StartSynthesisCommand startSynthesisCommand) {
     logger.info("Start a single synthesis instance.");
-    final StateSpace stateSpace;
     if (!suspendedStateSpacesMap.isEmpty()) {
       // restart synthesis on suspended statespace
       final Map.Entry<StateSpace, Integer> suspendedStateSpaceEntry =
           suspendedStateSpacesMap.get().entrySet().iterator().next();
-      stateSpace = suspendedStateSpaceEntry.getKey();
-      startSynthesisCommand.setLibraryExpansion(suspendedStateSpaceEntry.getValue());
-    } else {
-      // or start synthesis on a new statespace
-      stateSpace = idleStateSpaceQueue.poll();
+      final SolverBackend solverBackend =
+          getSuspendedSolverBackend(suspendedStateSpaceEntry.getKey(), startSynthesisCommand);
+      final StartSynthesisCommand restartedCommand =
+          solverBackend == startSynthesisCommand.getSolverBackend() ? startSynthesisCommand
+              : new StartSynthesisCommand(startSynthesisCommand, solverBackend);
+      restartedCommand.setLibraryExpansion(suspendedStateSpaceEntry.getValue());
+      runSynthesisTask(suspendedStateSpaceEntry.getKey(), restartedCommand);
+      return;
     }
-    if (stateSpace == null) {
-      logger.error("No statespace available when trying to run a single synthesis instance.");
+    // or start synthesis on a new statespace as soon as one is ready
+    if (stateSpacePool.sizeProperty().get() == 0 && stateSpacePool.loadingProperty().get() == 0) {
+      logger.warn("No statespace available when trying to run a single synthesis instance.");
       synchronizeStateSpaces();
+    }
+    drainSynthesisJobQueue();
+    enqueueSynthesisJob(startSynthesisCommand);
+  }
+
+  /**
+   * A suspended statespace is restarted using the solver backend that found the distinguishing
+   * example, which only differs from the given command's backend in portfolio mode.
+   */
+  private SolverBackend getSuspendedSolverBackend(
+      final StateSpace stateSpace, final StartSynthesisCommand startSynthesisCommand) {
+    final SolverBackend solverBackend = suspendedSolverBackendsMap.remove(stateSpace);
+    return solverBackend == null ? startSynthesisCommand.getSolverBackend() : solverBackend;
+  }
+
+  /**
+   * Queue a {@link SynthesisJob} for the given command that is dispatched to the next idle
+   * statespace. In portfolio mode, a job is queued for each {@link SolverBackend} instead, in the
+   * order of their past {@link PortfolioStatistics success} so that the favored backend is
+   * dispatched first.
+   */
+  private void enqueueSynthesisJob(final StartSynthesisCommand startSynthesisCommand) {
+    if (!isPortfolioMode()) {
+      synthesisJobQueue.add(new SynthesisJob(startSynthesisCommand));
+      acquireStateSpaceForSynthesisJob();
+      return;
+    }
+    final PortfolioRace portfolioRace = new PortfolioRace();
+    portfolioStatistics.getPreferredOrder().forEach(solverBackend -> {
+      final StartSynthesisCommand backendCommand =
+          solverBackend == startSynthesisCommand.getSolverBackend() ? startSynthesisCommand
+              : new StartSynthesisCommand(startSynthesisCommand, solverBackend);
+      backendCommand.setLibraryExpansion(startSynthesisCommand.getLibraryExpansion());
+      portfolioRace.addCommand(backendCommand);
+      portfolioRacesMap.put(backendCommand, portfolioRace);
+      synthesisJobQueue.add(new SynthesisJob(backendCommand));
+      acquireStateSpaceForSynthesisJob();
+    });
+  }
+
+  /**
+   * Acquire an instance from the {@link #stateSpacePool} to dispatch a queued {@link SynthesisJob}.
+   * Synthesis is stopped if no instance of the model could be loaded.
+   */
+  private void acquireStateSpaceForSynthesisJob() {
+    stateSpacePool.acquire().whenComplete((stateSpace, throwable) -> {
+      if (stateSpace != null) {
+        dispatchSynthesisJob(stateSpace);
+      } else if (!(throwable instanceof CancellationException)) {
+        logger.error("No statespace available for synthesis.", throwable);
+        getHandlerExecutor().execute(this::cancelRunningTasks);
+      }
+    });
+  }
+
+  private boolean isPortfolioMode() {
+    return usePortfolioProperty.get() && useSingleThreadProperty.not().get();
+  }
+
+  /**
+   * Decide the {@link PortfolioRace} of the given command if it is part of one: record the win and
+   * cancel the rival commands no matter if they are still queued or already running. The rivals'
+   * statespaces are interrupted when their tasks get cancelled and are only released to the pool
+   * once their synthesis context has been reset.
+   */
+  private void decidePortfolioRace(final StartSynthesisCommand startSynthesisCommand) {
+    final PortfolioRace portfolioRace = portfolioRacesMap.remove(startSynthesisCommand);
+    if (portfolioRace == null) {
+      return;
+    }
+    final List<StartSynthesisCommand> rivalCommands = portfolioRace.decide(startSynthesisCommand);
+    if (rivalCommands.isEmpty()) {
+      return;
+    }
+    portfolioStatistics.recordWin(startSynthesisCommand.getSolverBackend(), rivalCommands.stream()
+        .map(StartSynthesisCommand::getSolverBackend).collect(Collectors.toList()));
+    logger.info("{} won the portfolio race for library expansion {} ({}).",
+        startSynthesisCommand.getSolverBackend(), startSynthesisCommand.getLibraryExpansion(),
+        portfolioStatistics);
+    rivalCommands.forEach(rivalCommand -> {
+      portfolioRacesMap.remove(rivalCommand);
+      synthesisJobQueue.removeIf(synthesisJob ->
+          synthesisJob.getStartSynthesisCommand() == rivalCommand);
+      final SynthesisTask rivalTask = portfolioTasksMap.remove(rivalCommand);
+      if (rivalTask != null) {
+        DaemonThread.getDaemonThread(() -> rivalTask.cancel(true)).start();
+      }
+    });
+  }
+
+  /**
+   * Return true if the given failed command is part of a {@link PortfolioRace} whose rivals are
+   * still running, i.e., the library expansion has not failed yet.
+   */
+  private boolean awaitsPortfolioRivals(final StartSynthesisCommand startSynthesisCommand) {
+    final PortfolioRace portfolioRace = portfolioRacesMap.remove(startSynthesisCommand);
+    return portfolioRace != null && !portfolioRace.fail(startSynthesisCommand);
+  }
+
+  public PortfolioStatistics getPortfolioStatistics() {
+    return portfolioStatistics;
+  }
+
+  /**
+   * Run the {@link SynthesisJob} with the highest priority on the given idle statespace. Jobs stay
+   * queued while synthesis is suspended.
+   */
+  private void dispatchSynthesisJob(final StateSpace stateSpace) {
+    if (synthesisRunningProperty.not().get() || synthesisSucceededProperty.get()) {
+      addStateSpaceToQueue(stateSpace);
+      return;
+    }
+    final SynthesisJob synthesisJob = synthesisJobQueue.poll();
+    if (synthesisJob == null) {
+      addStateSpaceToQueue(stateSpace);
+      return;
+    }
+    logger.info("Dispatch {} to an idle statespace.", synthesisJob);
+    runSynthesisTask(stateSpace, synthesisJob.getStartSynthesisCommand());
+  }
+
+  /**
+   * Remove all queued {@link SynthesisJob synthesis jobs} and return their library expansions.
+   */
+  private List<Integer> drainSynthesisJobQueue() {
+    final List<SynthesisJob> synthesisJobs = new ArrayList<>();
+    synthesisJobQueue.drainTo(synthesisJobs);
+    return synthesisJobs.stream().map(SynthesisJob::getLibraryExpansion).sorted()
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Run synthesis on the given statespace unless synthesis has been stopped while waiting for the
+   * statespace to become ready. In this case, the statespace is released immediately.
+   */
+  private void runSynthesisTask(final StateSpace stateSpace,
+                                final StartSynthesisCommand startSynthesisCommand) {
+    if (stateSpace == null) {
       return;
     }
-    final Task<Void> synthesisTask = getSynthesisTask(stateSpace, startSynthesisCommand);
+    if (synthesisRunningProperty.not().get() || synthesisSucceededProperty.get()) {
+      addStateSpaceToQueue(stateSpace);
+      return;
+    }
+    final SynthesisTask synthesisTask = getSynthesisTask(stateSpace, startSynthesisCommand);
     synthesisTasksMap.put(synthesisTask, stateSpace);
+    if (portfolioRacesMap.containsKey(startSynthesisCommand)) {
+      portfolioTasksMap.put(startSynthesisCommand, synthesisTask);
+    }
     threadPoolExecutor.execute(synthesisTask);
   }
 
   /**
-   * Restart synthesis if no other task succeeded by now and we have not reached the maximum amount
-   * of library expansions yet. The distinguishing examples probably found by other instances
-   * running in parallel are not considered here. The user has to validate each example
-   * and manually restart synthesis which then will find the corresponding {@link StateSpace} using
-   * {@link #suspendedStateSpacesMap} and then also considers the additional examples.
+   * Queue the next library expansion that has not been scheduled yet if no other task succeeded by
+   * now and we have not reached the maximum amount of library expansions yet. When running in
+   * parallel, all library expansions have already been queued when starting synthesis. The
+   * distinguishing examples probably found by other instances running in parallel are not
+   * considered here. The user has to validate each example and manually restart synthesis which
+   * then will find the corresponding {@link StateSpace} using {@link #suspendedStateSpacesMap} and
+   * then also considers the additional examples.
    */
   private void expandLibraryAndRestartSynthesis(final StartSynthesisCommand startSynthesisCommand) {
     startSynthesisCommand.setLibraryExpansion(currentLibraryExpansionProperty.get());
-    final boolean libraryExpanded = startSynthesisCommand.expandLibrary();
-    if (synthesisSucceededProperty.not().get() && libraryExpanded) {
+    if (synthesisSucceededProperty.not().get() && startSynthesisCommand.expandLibrary()) {
       logger.info("Expand library to level " + startSynthesisCommand.getLibraryExpansion());
-      final StateSpace stateSpace = idleStateSpaceQueue.poll();
-      if (stateSpace == null) {
-        // TODO: save this startsynthesiscommand if it could not be executed right now?
-        return;
-      }
-      final Task<Void> synthesisTask = getSynthesisTask(stateSpace, startSynthesisCommand);
-      synthesisTasksMap.put(synthesisTask, stateSpace);
-      threadPoolExecutor.execute(synthesisTask);
       currentLibraryExpansionProperty.set(startSynthesisCommand.getLibraryExpansion());
-      return;
+      enqueueSynthesisJob(startSynthesisCommand);
     }
-    if (!libraryExpanded) {
+  }
+
+  /**
+   * Synthesis is not running anymore if there are neither running tasks nor queued jobs.
+   */
+  private void stopSynthesisIfIdle() {
+    if (synthesisTasksMap.isEmpty() && synthesisJobQueue.isEmpty()
+        && runningExampleVerifications.get() == 0) {
       synthesisRunningProperty.set(false);
     }
   }
@@ -306,7 +605,12 @@ public class ProBApiService {
         || userEvaluatedSolutionProperty.get()) {
       return;
     }
+    distinguishingExampleProperty.set(distinguishingExample);
     synthesisRunningProperty().set(false);
+    if (headless) {
+      // there is no validation pane to present the example to
+      return;
+    }
     final FindStateCommand inputStateCommand = new FindStateCommand(
         stateSpace, new ClassicalB(distinguishingExample.getInputStateEquality(),
         FormulaExpand.EXPAND), false);
@@ -381,109 +685,226 @@ public class ProBApiService {
   }
 
   /**
-   * Create a synthesis task if an idle statespace is given.
+   * Create a synthesis task if an idle statespace is given. The task's handlers run on the JavaFX
+   * application thread unless running {@link #setHeadless(boolean) headless}.
    */
-  private Task<Void> getSynthesisTask(final StateSpace stateSpace,
+  private SynthesisTask getSynthesisTask(final StateSpace stateSpace,
                                       final StartSynthesisCommand startSynthesisCommand) {
-    final Task<Void> synthesisTask = new Task<Void>() {
-      @Override
-      protected Void call() {
-        if (synthesisSucceededProperty.get()) {
-          return null;
-        }
-        startSynthesisCommand.distinguishingExampleProperty()
-            .addListener((observable, oldValue, newValue) -> {
-              if (newValue != null && !newValue.equals(oldValue)) {
-                synthesisSuspendedProperty.set(true);
-                handleDistinguishingExample(
-                    startSynthesisCommand.getSynthesisType(), stateSpace, newValue);
-                // suspend this statespace when finding a distinguishing example to revisit the same
-                // synthesis context when restarting synthesis after validating the example
-                suspendedStateSpacesMap.put(
-                    stateSpace, startSynthesisCommand.getLibraryExpansion());
+    final SynthesisTask synthesisTask = new SynthesisTask(getHandlerExecutor(), task -> {
+      if (synthesisSucceededProperty.get()) {
+        return;
+      }
+      startSynthesisCommand.distinguishingExampleProperty()
+          .addListener((observable, oldValue, newValue) -> {
+            if (newValue != null && !newValue.equals(oldValue)) {
+              if (startSynthesisCommand.isMinimized()) {
+                // the left out examples might already decide the distinguishing example
+                synthesisTasksMap.remove(task);
+                resetAndRelease(stateSpace);
+                restartSynthesisWithExamples(startSynthesisCommand,
+                    startSynthesisCommand.growExamples());
+                return;
               }
-            });
-        // use the succeeded property of the command and do not register setOnSucceeded()
-        // of the task since ProB might raise an integer overflow error but in prolog we then
-        // fall back to other constraint solvers like Z3 so that synthesis might succeeds although
-        // the task itself fails due to raising an exception
-        startSynthesisCommand.synthesisSucceededProperty().addListener(
-            (observable, oldValue, newValue) -> {
-              if (newValue && synthesisSucceededProperty.not().get()
-                  && userEvaluatedSolutionProperty.not().get()) {
-                synthesisSucceededProperty.set(true);
-                suspendedStateSpacesMap.clear();
-                synthesisRunningProperty.set(false);
-                synthesisTasksMap.remove(this);
-                cancelRunningTasks();
-                modifiedMachineCodeProperty.set(
-                    startSynthesisCommand.modifiedMachineCodeProperty().get());
-                behaviorSatisfiedProperty.set(
-                    startSynthesisCommand.behaviorSatisfiedProperty().get());
+              decidePortfolioRace(startSynthesisCommand);
+              synthesisSuspendedProperty.set(true);
+              handleDistinguishingExample(
+                  startSynthesisCommand.getSynthesisType(), stateSpace, newValue);
+              // suspend this statespace when finding a distinguishing example to revisit the same
+              // synthesis context when restarting synthesis after validating the example
+              suspendedStateSpacesMap.put(
+                  stateSpace, startSynthesisCommand.getLibraryExpansion());
+              suspendedSolverBackendsMap.put(
+                  stateSpace, startSynthesisCommand.getSolverBackend());
+            }
+          });
+      // use the succeeded property of the command and do not register setOnSucceeded()
+      // of the task since ProB might raise an integer overflow error but in prolog we then
+      // fall back to other constraint solvers like Z3 so that synthesis might succeeds although
+      // the task itself fails due to raising an exception
+      startSynthesisCommand.synthesisSucceededProperty().addListener(
+          (observable, oldValue, newValue) -> {
+            if (newValue && synthesisSucceededProperty.not().get()
+                && userEvaluatedSolutionProperty.not().get()) {
+              synthesisTasksMap.remove(task);
+              if (startSynthesisCommand.isMinimized()) {
+                verifyExamples(startSynthesisCommand);
+              } else {
+                reportSolution(startSynthesisCommand);
               }
-              resetSynthesisContextForStatespace(stateSpace);
-              addStateSpaceToQueue(stateSpace);
-            });
-        stateSpace.execute(startSynthesisCommand);
-        return null;
-      }
-    };
+            }
+            resetAndRelease(stateSpace);
+          });
+      stateSpace.execute(startSynthesisCommand);
+    });
     setSynthesisTaskListener(synthesisTask, stateSpace, startSynthesisCommand);
     return synthesisTask;
   }
 
-  private void setSynthesisTaskListener(final Task<Void> synthesisTask,
+  private void reportSolution(final StartSynthesisCommand startSynthesisCommand) {
+    decidePortfolioRace(startSynthesisCommand);
+    synthesisSucceededProperty.set(true);
+    suspendedStateSpacesMap.clear();
+    synthesisRunningProperty.set(false);
+    cancelRunningTasks();
+    modifiedMachineCodeProperty.set(startSynthesisCommand.modifiedMachineCodeProperty().get());
+    behaviorSatisfiedProperty.set(startSynthesisCommand.behaviorSatisfiedProperty().get());
+    cacheSolution(startSynthesisCommand);
+  }
+
+  /**
+   * Verify the program synthesized from a core of the examples against all examples in the
+   * background. The program is only reported if it is correct for all examples, otherwise
+   * synthesis is restarted with the examples it fails on added to the core.
+   */
+  private void verifyExamples(final StartSynthesisCommand startSynthesisCommand) {
+    runningExampleVerifications.incrementAndGet();
+    DaemonThread.getDaemonThread(() -> {
+      final int addedExamples = addFailingExamples(startSynthesisCommand);
+      getHandlerExecutor().execute(() -> {
+        runningExampleVerifications.decrementAndGet();
+        if (synthesisSucceededProperty.get() || synthesisRunningProperty.not().get()
+            || userEvaluatedSolutionProperty.get()) {
+          return;
+        }
+        if (addedExamples == 0) {
+          logger.info("The program synthesized from a core of the examples is correct for all "
+              + "examples.");
+          reportSolution(startSynthesisCommand);
+          return;
+        }
+        restartSynthesisWithExamples(startSynthesisCommand, addedExamples);
+      });
+    }).start();
+  }
+
+  /**
+   * Load the synthesized program of the given command to a temporary statespace and add the
+   * examples it fails on. The modified machine is written to a temporary directory, so that all
+   * left out examples are added if it cannot be loaded, e.g., since it sees further machines.
+   */
+  private int addFailingExamples(final StartSynthesisCommand startSynthesisCommand) {
+    final StateSpace mainStateSpace = getMainStateSpace();
+    if (mainStateSpace == null) {
+      return startSynthesisCommand.addAllExamples();
+    }
+    final File modelFile = mainStateSpace.getModel().getModelFile();
+    File machineFile = null;
+    StateSpace stateSpace = null;
+    try {
+      if (startSynthesisCommand.behaviorSatisfiedProperty().get() != null) {
+        return startSynthesisCommand.addFailingExamples(mainStateSpace);
+      }
+      machineFile = new File(Files.createTempDirectory("bsynthesis").toFile(), modelFile.getName());
+      Files.write(machineFile.toPath(), startSynthesisCommand.modifiedMachineCodeProperty().get()
+          .getBytes(StandardCharsets.UTF_8));
+      stateSpace = proBApi.b_load(machineFile.getPath());
+      return startSynthesisCommand.addFailingExamples(stateSpace);
+    } catch (final IOException | ModelTranslationError | ProBError exception) {
+      logger.error("Error verifying the synthesized program against all examples.", exception);
+      return startSynthesisCommand.addAllExamples();
+    } finally {
+      if (stateSpace != null) {
+        stateSpace.kill();
+      }
+      if (machineFile != null) {
+        machineFile.delete();
+        machineFile.getParentFile().delete();
+      }
+    }
+  }
+
+  /**
+   * Run the given command again after examples have been added to its core.
+   */
+  private void restartSynthesisWithExamples(final StartSynthesisCommand startSynthesisCommand,
+                                            final int addedExamples) {
+    logger.info("Restart synthesis with {} further examples.", addedExamples);
+    final StartSynthesisCommand restartedCommand = new StartSynthesisCommand(startSynthesisCommand);
+    restartedCommand.setLibraryExpansion(startSynthesisCommand.getLibraryExpansion());
+    enqueueSynthesisJob(restartedCommand);
+  }
+
+  private void cacheSolution(final StartSynthesisCommand startSynthesisCommand) {
+    if (startSynthesisCommand.isImplicitIf()) {
+      return;
+    }
+    final String behaviorSatisfied = startSynthesisCommand.behaviorSatisfiedProperty().get();
+    synthesisResultCache.put(startSynthesisCommand.getFingerprint(), behaviorSatisfied == null
+        ? CachedSynthesisResult.ofMachineCode(
+        startSynthesisCommand.modifiedMachineCodeProperty().get())
+        : CachedSynthesisResult.ofBehaviorSatisfied(behaviorSatisfied));
+  }
+
+  private void setSynthesisTaskListener(final SynthesisTask synthesisTask,
                                         final StateSpace stateSpace,
                                         final StartSynthesisCommand startSynthesisCommand) {
-    synthesisTask.setOnCancelled(event -> {
-      sendInterruptIfBusy(stateSpace);
+    synthesisTask.setOnCancelled(() -> {
+      portfolioTasksMap.remove(startSynthesisCommand);
+      interruptAndRelease(stateSpace);
       synthesisTasksMap.remove(synthesisTask);
-      if (synthesisTasksMap.values().isEmpty()) {
-        synthesisRunningProperty.set(false);
-      }
+      stopSynthesisIfIdle();
     });
-    synthesisTask.setOnFailed(event -> {
+    synthesisTask.setOnFailed(() -> {
       synthesisTasksMap.remove(synthesisTask);
-      if (synthesisTasksMap.values().isEmpty()) {
-        synthesisRunningProperty.set(false);
-      }
+      portfolioTasksMap.remove(startSynthesisCommand);
       if (stateSpace == null) {
+        stopSynthesisIfIdle();
         return;
       }
-      addStateSpaceToQueue(stateSpace);
-      resetSynthesisContextForStatespace(stateSpace);
-      expandLibraryAndRestartSynthesis(startSynthesisCommand);
+      // in portfolio mode, a library expansion has only failed if all backends failed
+      if (!awaitsPortfolioRivals(startSynthesisCommand)) {
+        expandLibraryAndRestartSynthesis(startSynthesisCommand);
+      }
+      // the statespace is handed to the next queued job if there is one
+      resetAndRelease(stateSpace);
+      stopSynthesisIfIdle();
     });
   }
 
   /**
-   * Interrupt the given {@link StateSpace} if it is busy.
+   * Interrupt the given {@link StateSpace} if it is busy and reset its synthesis context. The
+   * statespace is only released to the pool once the reset has completed, so that no other job is
+   * dispatched to it while the cancelled synthesis is still running.
    */
-  private void sendInterruptIfBusy(final StateSpace stateSpace) {
+  private void interruptAndRelease(final StateSpace stateSpace) {
     if (stateSpace == null) {
       return;
     }
-    addStateSpaceToQueue(stateSpace);
-    if (!stateSpace.isBusy()) {
+    DaemonThread.getDaemonThread(() -> {
+      if (stateSpace.isBusy()) {
+        stateSpace.sendInterrupt();
+      }
+      stateSpace.execute(new ResetSynthesisCommand());
+      addStateSpaceToQueue(stateSpace);
+    }).start();
+  }
+
+  /**
+   * Reset the synthesis context of the given {@link StateSpace} and only release it to the pool
+   * once the reset has completed, so that the next job dispatched to it does not race the reset.
+   */
+  private void resetAndRelease(final StateSpace stateSpace) {
+    if (stateSpace == null) {
       return;
     }
     DaemonThread.getDaemonThread(() -> {
-      stateSpace.sendInterrupt();
       stateSpace.execute(new ResetSynthesisCommand());
+      addStateSpaceToQueue(stateSpace);
     }).start();
   }
 
   private void addStateSpaceToQueue(final StateSpace stateSpace) {
-    if (stateSpace == null || idleStateSpaceQueue.contains(stateSpace)) {
-      return;
-    }
-    idleStateSpaceQueue.add(stateSpace);
+    stateSpacePool.release(stateSpace);
   }
 
   /**
    * Cancel all {@link #synthesisTasksMap running tasks}.
    */
   private void cancelRunningTasks() {
+    synthesisJobQueue.clear();
+    portfolioRacesMap.clear();
+    portfolioTasksMap.clear();
+    stateSpacePool.cancelPendingAcquisitions();
     synthesisTasksMap.entrySet().iterator().forEachRemaining(entry ->
         DaemonThread.getDaemonThread(() ->
             entry.getKey().cancel(true)).start());
@@ -491,11 +912,32 @@ public class ProBApiService {
     synthesisRunningProperty.set(false);
   }
 
-  StringProperty modifiedMachineCodeProperty() {
+  /**
+   * Run synthesis without the JavaFX toolkit, i.e., task handlers are run directly instead of on
+   * the JavaFX application thread and distinguishing examples are only provided by {@link
+   * #distinguishingExampleProperty()} instead of being added to the validation pane.
+   */
+  public void setHeadless(final boolean headless) {
+    this.headless = headless;
+  }
+
+  private Executor getHandlerExecutor() {
+    return headless ? Runnable::run : Platform::runLater;
+  }
+
+  /**
+   * The distinguishing example found most recently, which suspends synthesis until the user
+   * validated the example.
+   */
+  public ObjectProperty<DistinguishingExample> distinguishingExampleProperty() {
+    return distinguishingExampleProperty;
+  }
+
+  public StringProperty modifiedMachineCodeProperty() {
     return modifiedMachineCodeProperty;
   }
 
-  StringProperty behaviorSatisfiedProperty() {
+  public StringProperty behaviorSatisfiedProperty() {
     return behaviorSatisfiedProperty;
   }
 
@@ -505,10 +947,12 @@ public class ProBApiService {
   public void reset() {
     synthesisSucceededProperty.set(false);
     modifiedMachineCodeProperty.set(null);
+    distinguishingExampleProperty.set(null);
     currentLibraryExpansionProperty.set(1);
     suspendedStateSpacesMap.clear();
+    suspendedSolverBackendsMap.clear();
     synthesisSuspendedProperty.set(false);
-    stateSpacesProperty.forEach(this::resetSynthesisContextForStatespace);
+    stateSpacePool.getInstances().forEach(this::resetSynthesisContextForStatespace);
     cancelRunningTasks();
   }
 
@@ -519,8 +963,17 @@ public class ProBApiService {
     DaemonThread.getDaemonThread(() -> stateSpace.execute(new ResetSynthesisCommand())).start();
   }
 
+  /**
+   * Enable or disable the {@link #synthesisResultCache}, e.g., to measure repeated synthesis runs.
+   * Disabling the cache also clears it.
+   */
+  public void setResultCacheEnabled(final boolean enabled) {
+    synthesisResultCache.setEnabled(enabled);
+  }
+
   public void shutdownExecutor() {
     threadPoolExecutor.shutdown();
+    stateSpacePool.shutdown();
   }
 
   BooleanProperty synthesisSuspendedProperty() {
@@ -534,4 +987,12 @@ public class ProBApiService {
   BooleanProperty useSingleThreadProperty() {
     return useSingleThreadProperty;
   }
+
+  BooleanProperty usePortfolioProperty() {
+    return usePortfolioProperty;
+  }
+
+  BooleanProperty minimizeExamplesProperty() {
+    return minimizeExamplesProperty;
+  }
 }
\ No newline at end of file
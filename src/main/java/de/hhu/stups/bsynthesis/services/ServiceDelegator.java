@@ -45,6 +45,10 @@ public class ServiceDelegator {
         .bindBidirectional(proBApiService.userEvaluatedSolutionProperty());
     synthesisContextService.useSingleThreadProperty()
         .bindBidirectional(proBApiService.useSingleThreadProperty());
+    synthesisContextService.usePortfolioProperty()
+        .bindBidirectional(proBApiService.usePortfolioProperty());
+    synthesisContextService.minimizeExamplesProperty()
+        .bindBidirectional(proBApiService.minimizeExamplesProperty());
     synthesisContextService.contextEventStream().subscribe(contextEvent -> {
       if (ContextEventType.RESET_CONTEXT.equals(contextEvent.getContextEventType())) {
         modelCheckingService.reset();
@@ -56,6 +60,7 @@ public class ServiceDelegator {
       // bind one statespace to the synthesis context, the other instances are synchronized within
       // {@link ProBApiService} according to this statespace
       synthesisContextService.setStateSpace(proBApiService.getMainStateSpace());
+      modelCheckingService.checkIncrementally(stateSpace);
     });
   }
 
@@ -0,0 +1,408 @@
+package de.hhu.stups.bsynthesis.services;
+
+import de.prob.statespace.StateSpace;
+
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.ReadOnlyLongWrapper;
+import javafx.beans.property.SimpleIntegerProperty;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * An elastic pool of {@link StateSpace statespaces} that have all loaded the same model. The pool
+ * starts with {@link #minimumSizeProperty() minimum size} instances, {@link #ensureCapacity(int)
+ * grows} on demand up to {@link #maximumSizeProperty() maximum size} and shrinks instances that
+ * have been idle longer than the idle timeout. The default maximum size is derived from the
+ * available cores and the free physical memory. Minimum size, maximum size and idle timeout can be
+ * configured using the system properties {@code bsynthesis.pool.min}, {@code bsynthesis.pool.max}
+ * and {@code bsynthesis.pool.idleTimeOut} (in milliseconds). Instances are loaded concurrently by
+ * at most {@code bsynthesis.pool.loadParallelism} threads. If no instance of a model can be
+ * loaded, the waiting acquisitions fail and the failure is reported once per model.
+ */
+public class StateSpacePool {
+
+  private static final long MEMORY_PER_INSTANCE = 512L * 1024 * 1024;
+  private static final int DEFAULT_MINIMUM_SIZE = 2;
+  private static final long DEFAULT_IDLE_TIMEOUT = 120_000;
+
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private final Function<File, StateSpace> stateSpaceLoader;
+  private final Consumer<File> loadFailureHandler;
+  private final BlockingDeque<StateSpace> idleStateSpaces;
+  private final Map<StateSpace, Long> idleSinceMap;
+  private final Set<StateSpace> instances;
+  private final Set<CompletableFuture<StateSpace>> loadingInstances;
+  private final Queue<CompletableFuture<StateSpace>> waitingAcquisitions;
+  private final ScheduledExecutorService scheduledExecutorService;
+  private final ExecutorService loadExecutorService;
+  private final IntegerProperty minimumSizeProperty;
+  private final IntegerProperty maximumSizeProperty;
+  private final ReadOnlyIntegerWrapper sizeProperty;
+  private final ReadOnlyIntegerWrapper idleProperty;
+  private final ReadOnlyIntegerWrapper loadingProperty;
+  private final ReadOnlyLongWrapper lastLoadTimeProperty;
+  private final long idleTimeOut;
+
+  private File modelFile;
+  private int generation;
+  private int failedGeneration;
+
+  /**
+   * Initialize the pool using the given function to load a model to a new {@link StateSpace}. The
+   * function is expected to return null if the model could not be loaded. The given handler is
+   * called once per model if an instance could not be loaded.
+   */
+  public StateSpacePool(final Function<File, StateSpace> stateSpaceLoader,
+                        final Consumer<File> loadFailureHandler) {
+    this.stateSpaceLoader = stateSpaceLoader;
+    this.loadFailureHandler = loadFailureHandler;
+    idleStateSpaces = new LinkedBlockingDeque<>();
+    idleSinceMap = new ConcurrentHashMap<>();
+    instances = ConcurrentHashMap.newKeySet();
+    loadingInstances = ConcurrentHashMap.newKeySet();
+    waitingAcquisitions = new LinkedList<>();
+    scheduledExecutorService =
+        Executors.newSingleThreadScheduledExecutor(DaemonThread::getDaemonThread);
+    final int defaultMaximumSize = getDefaultMaximumSize();
+    maximumSizeProperty = new SimpleIntegerProperty(
+        Math.max(1, Integer.getInteger("bsynthesis.pool.max", defaultMaximumSize)));
+    minimumSizeProperty = new SimpleIntegerProperty(Math.max(1, Math.min(maximumSizeProperty.get(),
+        Integer.getInteger("bsynthesis.pool.min", DEFAULT_MINIMUM_SIZE))));
+    sizeProperty = new ReadOnlyIntegerWrapper();
+    idleProperty = new ReadOnlyIntegerWrapper();
+    loadingProperty = new ReadOnlyIntegerWrapper();
+    lastLoadTimeProperty = new ReadOnlyLongWrapper();
+    final int loadParallelism = Math.max(1, Integer.getInteger("bsynthesis.pool.loadParallelism",
+        Math.min(maximumSizeProperty.get(), Runtime.getRuntime().availableProcessors())));
+    loadExecutorService =
+        Executors.newFixedThreadPool(loadParallelism, DaemonThread::getDaemonThread);
+    idleTimeOut = Math.max(1000, Long.getLong("bsynthesis.pool.idleTimeOut", DEFAULT_IDLE_TIMEOUT));
+    scheduledExecutorService.scheduleWithFixedDelay(this::shrink, idleTimeOut / 2,
+        idleTimeOut / 2, TimeUnit.MILLISECONDS);
+    logger.info("Initialized statespace pool with minimum size {} and maximum size {}.",
+        minimumSizeProperty.get(), maximumSizeProperty.get());
+  }
+
+  /**
+   * The amount of ProB instances we can afford, i.e., one instance per available core as long as
+   * the free physical memory allows it.
+   */
+  private static int getDefaultMaximumSize() {
+    final int cores = Runtime.getRuntime().availableProcessors();
+    final OperatingSystemMXBean operatingSystemMxBean =
+        ManagementFactory.getOperatingSystemMXBean();
+    if (operatingSystemMxBean instanceof com.sun.management.OperatingSystemMXBean) {
+      final long freeMemory = ((com.sun.management.OperatingSystemMXBean) operatingSystemMxBean)
+          .getFreePhysicalMemorySize();
+      return (int) Math.max(1, Math.min(cores, freeMemory / MEMORY_PER_INSTANCE));
+    }
+    return Math.max(1, cores);
+  }
+
+  /**
+   * Discard all instances and load the given model to {@link #minimumSizeProperty() minimum size}
+   * new instances.
+   */
+  public void reset(final File modelFile) {
+    final Set<StateSpace> discardedInstances;
+    synchronized (this) {
+      this.modelFile = modelFile;
+      generation++;
+      discardedInstances = new HashSet<>(instances);
+      instances.clear();
+      idleStateSpaces.clear();
+      idleSinceMap.clear();
+      loadingInstances.clear();
+      loadingProperty.set(0);
+      updateOccupancy();
+    }
+    cancelPendingAcquisitions();
+    if (!discardedInstances.isEmpty()) {
+      DaemonThread.getDaemonThread(() -> discardedInstances.forEach(StateSpace::kill)).start();
+    }
+    ensureCapacity(minimumSizeProperty.get());
+  }
+
+  /**
+   * Grow the pool so that at least the given amount of instances is idle or currently loading.
+   * The pool never grows beyond its {@link #maximumSizeProperty() maximum size}. Return a readiness
+   * future for each instance that is loaded additionally. A future completes with the loaded
+   * instance, or with null if the model could not be loaded or has been replaced in the meantime.
+   */
+  public List<CompletableFuture<StateSpace>> ensureCapacity(final int demandedIdleInstances) {
+    final List<CompletableFuture<StateSpace>> readinessFutures = new ArrayList<>();
+    final int instancesToLoad;
+    final int currentGeneration;
+    final File currentModelFile;
+    synchronized (this) {
+      if (modelFile == null) {
+        return readinessFutures;
+      }
+      final int available = idleStateSpaces.size() + loadingProperty.get();
+      final int capacity = maximumSizeProperty.get() - instances.size() - loadingProperty.get();
+      instancesToLoad = Math.max(0, Math.min(demandedIdleInstances - available, capacity));
+      loadingProperty.set(loadingProperty.get() + instancesToLoad);
+      currentGeneration = generation;
+      currentModelFile = modelFile;
+    }
+    if (instancesToLoad == 0) {
+      return readinessFutures;
+    }
+    logger.info("Growing statespace pool by {} instances.", instancesToLoad);
+    for (int i = 0; i < instancesToLoad; i++) {
+      final CompletableFuture<StateSpace> readinessFuture = CompletableFuture.supplyAsync(() ->
+          loadInstance(currentModelFile, currentGeneration), loadExecutorService);
+      loadingInstances.add(readinessFuture);
+      readinessFuture.whenComplete((stateSpace, throwable) ->
+          loadingInstances.remove(readinessFuture));
+      readinessFutures.add(readinessFuture);
+    }
+    return readinessFutures;
+  }
+
+  private StateSpace loadInstance(final File modelFile, final int instanceGeneration) {
+    final long startTime = System.currentTimeMillis();
+    StateSpace stateSpace = null;
+    try {
+      stateSpace = stateSpaceLoader.apply(modelFile);
+    } catch (final RuntimeException exception) {
+      logger.error("Error loading statespace instance of " + modelFile.getName(), exception);
+    }
+    final long loadTime = System.currentTimeMillis() - startTime;
+    final List<CompletableFuture<StateSpace>> failedAcquisitions = new ArrayList<>();
+    boolean reportFailure = false;
+    synchronized (this) {
+      if (instanceGeneration != generation) {
+        if (stateSpace != null) {
+          // the model has been replaced in the meantime
+          stateSpace.kill();
+        }
+        return null;
+      }
+      loadingProperty.set(loadingProperty.get() - 1);
+      if (stateSpace != null) {
+        logger.info("Loaded statespace instance of {} in {} ms.", modelFile.getName(), loadTime);
+        lastLoadTimeProperty.set(loadTime);
+        instances.add(stateSpace);
+        updateOccupancy();
+      } else {
+        reportFailure = failedGeneration != generation;
+        failedGeneration = generation;
+        if (instances.isEmpty() && loadingProperty.get() == 0) {
+          // there is no instance that could serve the waiting acquisitions
+          failedAcquisitions.addAll(waitingAcquisitions);
+          waitingAcquisitions.clear();
+        }
+      }
+    }
+    if (stateSpace == null) {
+      if (reportFailure) {
+        loadFailureHandler.accept(modelFile);
+      }
+      final IllegalStateException failure =
+          new IllegalStateException("No statespace instance of " + modelFile.getName());
+      failedAcquisitions.forEach(acquisition -> acquisition.completeExceptionally(failure));
+      return null;
+    }
+    offer(stateSpace);
+    return stateSpace;
+  }
+
+  /**
+   * Return a future that completes with an idle instance as soon as there is one. The pool grows
+   * if no instance is idle at the moment. The returned instance is considered busy until it is
+   * {@link #release(StateSpace) released}. Waiting acquisitions are served in the order they have
+   * been requested. They fail exceptionally if no instance could be loaded and none is left.
+   */
+  public CompletableFuture<StateSpace> acquire() {
+    final CompletableFuture<StateSpace> acquisition;
+    final int waiting;
+    synchronized (this) {
+      final StateSpace stateSpace = poll();
+      if (stateSpace != null) {
+        return CompletableFuture.completedFuture(stateSpace);
+      }
+      acquisition = new CompletableFuture<>();
+      waitingAcquisitions.add(acquisition);
+      waiting = waitingAcquisitions.size();
+    }
+    ensureCapacity(waiting);
+    return acquisition;
+  }
+
+  /**
+   * Cancel all acquisitions that are still waiting for an idle instance.
+   */
+  public void cancelPendingAcquisitions() {
+    final List<CompletableFuture<StateSpace>> acquisitions;
+    synchronized (this) {
+      acquisitions = new ArrayList<>(waitingAcquisitions);
+      waitingAcquisitions.clear();
+    }
+    acquisitions.forEach(acquisition -> acquisition.cancel(false));
+  }
+
+  /**
+   * Hand the given instance to the first waiting acquisition or mark it as idle if there is none.
+   * Acquisitions are completed outside of the lock since they usually trigger further work.
+   */
+  private void offer(final StateSpace stateSpace) {
+    while (stateSpace != null) {
+      final CompletableFuture<StateSpace> acquisition;
+      synchronized (this) {
+        if (!instances.contains(stateSpace) || idleStateSpaces.contains(stateSpace)) {
+          return;
+        }
+        acquisition = waitingAcquisitions.poll();
+        if (acquisition == null) {
+          idleSinceMap.put(stateSpace, System.currentTimeMillis());
+          // the most recently used instances are reused first so that the others can time out
+          idleStateSpaces.addFirst(stateSpace);
+          updateOccupancy();
+          return;
+        }
+      }
+      if (acquisition.complete(stateSpace)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Return an idle instance or null if there is none. The returned instance is considered busy
+   * until it is {@link #release(StateSpace) released}.
+   */
+  public synchronized StateSpace poll() {
+    final StateSpace stateSpace = idleStateSpaces.pollFirst();
+    if (stateSpace != null) {
+      idleSinceMap.remove(stateSpace);
+      updateOccupancy();
+    }
+    return stateSpace;
+  }
+
+  /**
+   * Mark the given instance as idle or hand it to a waiting acquisition. Instances that do not
+   * belong to the pool (anymore) are ignored.
+   */
+  public void release(final StateSpace stateSpace) {
+    offer(stateSpace);
+  }
+
+  /**
+   * Kill instances that have been idle for longer than the idle timeout as long as the pool is
+   * larger than its {@link #minimumSizeProperty() minimum size}.
+   */
+  private void shrink() {
+    final Set<StateSpace> timedOutInstances = new HashSet<>();
+    synchronized (this) {
+      final long now = System.currentTimeMillis();
+      // the oldest idle instances are at the end of the deque
+      while (instances.size() > minimumSizeProperty.get() && !idleStateSpaces.isEmpty()) {
+        final StateSpace stateSpace = idleStateSpaces.peekLast();
+        final Long idleSince = idleSinceMap.get(stateSpace);
+        if (idleSince == null || now - idleSince < idleTimeOut) {
+          break;
+        }
+        idleStateSpaces.pollLast();
+        idleSinceMap.remove(stateSpace);
+        instances.remove(stateSpace);
+        timedOutInstances.add(stateSpace);
+      }
+      if (timedOutInstances.isEmpty()) {
+        return;
+      }
+      updateOccupancy();
+    }
+    logger.info("Shrinking statespace pool by {} idle instances.", timedOutInstances.size());
+    timedOutInstances.forEach(StateSpace::kill);
+  }
+
+  private void updateOccupancy() {
+    sizeProperty.set(instances.size());
+    idleProperty.set(idleStateSpaces.size());
+    logger.debug("Statespace pool occupancy: {} busy, {} idle, {} loading.",
+        instances.size() - idleStateSpaces.size(), idleStateSpaces.size(), loadingProperty.get());
+  }
+
+  public synchronized boolean contains(final StateSpace stateSpace) {
+    return instances.contains(stateSpace);
+  }
+
+  public synchronized Set<StateSpace> getInstances() {
+    return new HashSet<>(instances);
+  }
+
+  /**
+   * Return the readiness futures of the instances that are currently loading.
+   */
+  public Set<CompletableFuture<StateSpace>> getLoadingInstances() {
+    return new HashSet<>(loadingInstances);
+  }
+
+  public synchronized int getBusyInstances() {
+    return instances.size() - idleStateSpaces.size();
+  }
+
+  public IntegerProperty minimumSizeProperty() {
+    return minimumSizeProperty;
+  }
+
+  public IntegerProperty maximumSizeProperty() {
+    return maximumSizeProperty;
+  }
+
+  public ReadOnlyIntegerProperty sizeProperty() {
+    return sizeProperty.getReadOnlyProperty();
+  }
+
+  public ReadOnlyIntegerProperty idleProperty() {
+    return idleProperty.getReadOnlyProperty();
+  }
+
+  public ReadOnlyIntegerProperty loadingProperty() {
+    return loadingProperty.getReadOnlyProperty();
+  }
+
+  /**
+   * The time in milliseconds it took to load the most recently loaded instance.
+   */
+  public ReadOnlyLongProperty lastLoadTimeProperty() {
+    return lastLoadTimeProperty.getReadOnlyProperty();
+  }
+
+  /**
+   * Stop shrinking the pool and kill all instances.
+   */
+  public void shutdown() {
+    scheduledExecutorService.shutdown();
+    loadExecutorService.shutdownNow();
+    cancelPendingAcquisitions();
+    getInstances().forEach(StateSpace::kill);
+  }
+}
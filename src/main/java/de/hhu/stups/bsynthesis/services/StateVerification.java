@@ -0,0 +1,38 @@
+package de.hhu.stups.bsynthesis.services;
+
+import de.prob.animator.command.FindStateCommand;
+import de.prob.statespace.State;
+
+import java.util.Map;
+
+/**
+ * The result of {@link ProBApiService#verifyStates verifying} several state equality predicates.
+ * Each predicate is mapped to the result of finding a corresponding state and the state of the
+ * main statespace if one has been found.
+ */
+public class StateVerification {
+
+  private final Map<String, FindStateCommand.ResultType> results;
+  private final Map<String, State> states;
+
+  StateVerification(final Map<String, FindStateCommand.ResultType> results,
+                    final Map<String, State> states) {
+    this.results = results;
+    this.states = states;
+  }
+
+  /**
+   * Return the result for the given predicate or {@link FindStateCommand.ResultType#ERROR} if the
+   * predicate has not been verified.
+   */
+  public FindStateCommand.ResultType getResult(final String stateEquality) {
+    return results.getOrDefault(stateEquality, FindStateCommand.ResultType.ERROR);
+  }
+
+  /**
+   * Return the state of the main statespace for the given predicate or null if there is none.
+   */
+  public State getState(final String stateEquality) {
+    return states.get(stateEquality);
+  }
+}
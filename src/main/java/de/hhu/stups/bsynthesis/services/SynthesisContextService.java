@@ -57,6 +57,8 @@ public class SynthesisContextService {
   private final StringProperty behaviorSatisfiedProperty;
   private final BooleanProperty userEvaluatedSolution;
   private final BooleanProperty useSingleThreadProperty;
+  private final BooleanProperty usePortfolioProperty;
+  private final BooleanProperty minimizeExamplesProperty;
 
   /**
    * Initialize all properties and set the injected factories.
@@ -82,6 +84,9 @@ public class SynthesisContextService {
     modifyInvariantsProperty = new SimpleBooleanProperty(false);
     userEvaluatedSolution = new SimpleBooleanProperty();
     useSingleThreadProperty = new SimpleBooleanProperty(false);
+    usePortfolioProperty = new SimpleBooleanProperty(false);
+    minimizeExamplesProperty = new SimpleBooleanProperty(
+        Boolean.getBoolean("bsynthesis.synthesis.minimizeExamples"));
 
     contextEventStream = new EventSource<>();
 
@@ -246,6 +251,22 @@ public class SynthesisContextService {
     return useSingleThreadProperty;
   }
 
+  /**
+   * Race each library expansion on all {@link SolverBackend solver backends} instead of only
+   * using the {@link #solverBackendProperty() selected one}.
+   */
+  public BooleanProperty usePortfolioProperty() {
+    return usePortfolioProperty;
+  }
+
+  /**
+   * Start synthesis from a core of the examples and add further examples only if the synthesized
+   * program fails on them.
+   */
+  public BooleanProperty minimizeExamplesProperty() {
+    return minimizeExamplesProperty;
+  }
+
   public Integer getSolverTimeOut() {
     return solverTimeOutProperty.get();
   }
@@ -0,0 +1,63 @@
+package de.hhu.stups.bsynthesis.services;
+
+import de.hhu.stups.bsynthesis.prob.StartSynthesisCommand;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A copy of a {@link StartSynthesisCommand} waiting for an idle statespace. Jobs are ordered by
+ * their library expansion first so that smaller libraries are tried before larger ones, and by
+ * their estimated cost second. Jobs with equal priority are dispatched in the order they have
+ * been created.
+ */
+final class SynthesisJob implements Comparable<SynthesisJob> {
+
+  private static final AtomicLong SEQUENCE = new AtomicLong();
+
+  private final StartSynthesisCommand startSynthesisCommand;
+  private final int libraryExpansion;
+  private final long estimatedCost;
+  private final long sequenceNumber;
+
+  SynthesisJob(final StartSynthesisCommand startSynthesisCommand) {
+    this.startSynthesisCommand = startSynthesisCommand;
+    libraryExpansion = startSynthesisCommand.getLibraryExpansion();
+    estimatedCost = startSynthesisCommand.getEstimatedCost();
+    sequenceNumber = SEQUENCE.getAndIncrement();
+  }
+
+  StartSynthesisCommand getStartSynthesisCommand() {
+    return startSynthesisCommand;
+  }
+
+  int getLibraryExpansion() {
+    return libraryExpansion;
+  }
+
+  @Override
+  public int compareTo(final SynthesisJob synthesisJob) {
+    if (libraryExpansion != synthesisJob.libraryExpansion) {
+      return Integer.compare(libraryExpansion, synthesisJob.libraryExpansion);
+    }
+    if (estimatedCost != synthesisJob.estimatedCost) {
+      return Long.compare(estimatedCost, synthesisJob.estimatedCost);
+    }
+    return Long.compare(sequenceNumber, synthesisJob.sequenceNumber);
+  }
+
+  @Override
+  public boolean equals(final Object object) {
+    return object instanceof SynthesisJob
+        && sequenceNumber == ((SynthesisJob) object).sequenceNumber;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(sequenceNumber);
+  }
+
+  @Override
+  public String toString() {
+    return "SynthesisJob(expansion=" + libraryExpansion + ", cost=" + estimatedCost + ")";
+  }
+}
@@ -0,0 +1,121 @@
+package de.hhu.stups.bsynthesis.services;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import de.hhu.stups.bsynthesis.prob.CachedSynthesisResult;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cache of {@link CachedSynthesisResult synthesis results} keyed by the fingerprint of a
+ * {@link de.hhu.stups.bsynthesis.prob.StartSynthesisCommand}. The cache is bounded by the system
+ * property bsynthesis.resultCache.size and entries expire after bsynthesis.resultCache.maxAge
+ * milliseconds. If bsynthesis.resultCache.file is set, the cache is read from this file on startup
+ * and written to it whenever a result is added so that results are kept across sessions. The
+ * cache can be disabled by the system property bsynthesis.resultCache.enabled.
+ */
+class SynthesisResultCache {
+
+  private static final int DEFAULT_MAXIMUM_SIZE = 100;
+  private static final long DEFAULT_MAXIMUM_AGE = TimeUnit.DAYS.toMillis(1);
+
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private final long maximumAge;
+  private final File persistenceFile;
+  private final Cache<String, CachedSynthesisResult> cache;
+
+  private volatile boolean enabled;
+
+  SynthesisResultCache() {
+    enabled = Boolean.parseBoolean(System.getProperty("bsynthesis.resultCache.enabled", "true"));
+    maximumAge = Long.getLong("bsynthesis.resultCache.maxAge", DEFAULT_MAXIMUM_AGE);
+    final String fileName = System.getProperty("bsynthesis.resultCache.file");
+    persistenceFile = fileName == null ? null : new File(fileName);
+    cache = CacheBuilder.newBuilder()
+        .maximumSize(Integer.getInteger("bsynthesis.resultCache.size", DEFAULT_MAXIMUM_SIZE))
+        .expireAfterWrite(maximumAge, TimeUnit.MILLISECONDS)
+        .build();
+    readFromDisk();
+  }
+
+  /**
+   * Return the cached result for the given fingerprint or null if there is none or it is
+   * outdated.
+   */
+  CachedSynthesisResult get(final String fingerprint) {
+    if (fingerprint == null || !enabled) {
+      return null;
+    }
+    final CachedSynthesisResult cachedResult = cache.getIfPresent(fingerprint);
+    if (cachedResult != null && isExpired(cachedResult)) {
+      cache.invalidate(fingerprint);
+      return null;
+    }
+    return cachedResult;
+  }
+
+  void put(final String fingerprint, final CachedSynthesisResult cachedResult) {
+    if (fingerprint == null || cachedResult == null || !enabled) {
+      return;
+    }
+    cache.put(fingerprint, cachedResult);
+    if (persistenceFile != null) {
+      DaemonThread.getDaemonThread(this::writeToDisk).start();
+    }
+  }
+
+  void setEnabled(final boolean enabled) {
+    this.enabled = enabled;
+    if (!enabled) {
+      cache.invalidateAll();
+    }
+  }
+
+  /**
+   * Results read from disk keep their creation time, so that they expire like any other result.
+   */
+  private boolean isExpired(final CachedSynthesisResult cachedResult) {
+    return System.currentTimeMillis() - cachedResult.getCreationTime() > maximumAge;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readFromDisk() {
+    if (!enabled || persistenceFile == null || !persistenceFile.isFile()) {
+      return;
+    }
+    try (final ObjectInputStream inputStream =
+             new ObjectInputStream(new FileInputStream(persistenceFile))) {
+      final Map<String, CachedSynthesisResult> persistedResults =
+          (Map<String, CachedSynthesisResult>) inputStream.readObject();
+      persistedResults.forEach((fingerprint, cachedResult) -> {
+        if (!isExpired(cachedResult)) {
+          cache.put(fingerprint, cachedResult);
+        }
+      });
+      logger.info("Read {} cached synthesis results from {}.", cache.size(), persistenceFile);
+    } catch (final IOException | ClassNotFoundException | ClassCastException exception) {
+      logger.error("Error reading cached synthesis results from " + persistenceFile, exception);
+    }
+  }
+
+  private synchronized void writeToDisk() {
+    try (final ObjectOutputStream outputStream =
+             new ObjectOutputStream(new FileOutputStream(persistenceFile))) {
+      outputStream.writeObject(new HashMap<>(cache.asMap()));
+    } catch (final IOException exception) {
+      logger.error("Error writing cached synthesis results to " + persistenceFile, exception);
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package de.hhu.stups.bsynthesis.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+
+/**
+ * A cancellable task running synthesis on a statespace. In contrast to a JavaFX task, the {@link
+ * #setOnCancelled(Runnable) cancelled} and {@link #setOnFailed(Runnable) failed} handlers are
+ * run by the given executor, e.g., {@link javafx.application.Platform#runLater(Runnable)} when
+ * running the application or directly when running synthesis without the JavaFX toolkit.
+ */
+final class SynthesisTask implements Runnable {
+
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private final Executor handlerExecutor;
+  private final FutureTask<Void> futureTask;
+
+  private volatile Runnable onCancelled = () -> {
+  };
+  private volatile Runnable onFailed = () -> {
+  };
+
+  SynthesisTask(final Executor handlerExecutor, final Consumer<SynthesisTask> synthesis) {
+    this.handlerExecutor = handlerExecutor;
+    futureTask = new FutureTask<Void>(() -> synthesis.accept(this), null) {
+      @Override
+      protected void done() {
+        handleCompletion();
+      }
+    };
+  }
+
+  private void handleCompletion() {
+    if (futureTask.isCancelled()) {
+      handlerExecutor.execute(onCancelled);
+      return;
+    }
+    try {
+      futureTask.get();
+    } catch (final ExecutionException executionException) {
+      logger.debug("Synthesis task failed.", executionException.getCause());
+      handlerExecutor.execute(onFailed);
+    } catch (final InterruptedException interruptedException) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public void run() {
+    futureTask.run();
+  }
+
+  boolean cancel(final boolean mayInterruptIfRunning) {
+    return futureTask.cancel(mayInterruptIfRunning);
+  }
+
+  void setOnCancelled(final Runnable onCancelled) {
+    this.onCancelled = onCancelled;
+  }
+
+  void setOnFailed(final Runnable onFailed) {
+    this.onFailed = onFailed;
+  }
+}
@@ -0,0 +1,107 @@
+package de.hhu.stups.bsynthesis.ui;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collect ui updates, e.g., adding many nodes to the validation pane, and apply them once per
+ * frame on the JavaFX application thread instead of scheduling each update using {@link
+ * Platform#runLater(Runnable)}. The work per frame is capped by the maximum amount of updates
+ * (system property bsynthesis.ui.maxUpdatesPerFrame) and a time budget in milliseconds (system
+ * property bsynthesis.ui.frameBudget) so that the ui stays responsive, remaining updates are
+ * applied in the next frames.
+ */
+public class FrameBatchedExecutor implements Executor {
+
+  private static final int DEFAULT_MAX_UPDATES_PER_FRAME = 200;
+  private static final long DEFAULT_FRAME_BUDGET = 8;
+
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private final Queue<Runnable> pendingUpdates = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pendingUpdatesCount = new AtomicInteger();
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+  private final ReadOnlyIntegerWrapper lastFrameUpdatesProperty = new ReadOnlyIntegerWrapper();
+  private final int maxUpdatesPerFrame;
+  private final long frameBudget;
+  private final AnimationTimer animationTimer;
+
+  /**
+   * Initialize the limits of work per frame from the system properties.
+   */
+  public FrameBatchedExecutor() {
+    maxUpdatesPerFrame = Math.max(1, Integer.getInteger("bsynthesis.ui.maxUpdatesPerFrame",
+        DEFAULT_MAX_UPDATES_PER_FRAME));
+    frameBudget = TimeUnit.MILLISECONDS.toNanos(
+        Long.getLong("bsynthesis.ui.frameBudget", DEFAULT_FRAME_BUDGET));
+    animationTimer = new AnimationTimer() {
+      @Override
+      public void handle(final long now) {
+        applyPendingUpdates();
+      }
+    };
+  }
+
+  /**
+   * Queue an update that is applied on the JavaFX application thread within the next frames.
+   */
+  @Override
+  public void execute(final Runnable update) {
+    pendingUpdates.add(update);
+    pendingUpdatesCount.incrementAndGet();
+    // the timer only runs while there are pending updates to not request pulses when idle
+    if (scheduled.compareAndSet(false, true)) {
+      Platform.runLater(animationTimer::start);
+    }
+  }
+
+  private void applyPendingUpdates() {
+    final long start = System.nanoTime();
+    int updates = 0;
+    Runnable update;
+    while (updates < maxUpdatesPerFrame && System.nanoTime() - start < frameBudget
+        && (update = pendingUpdates.poll()) != null) {
+      pendingUpdatesCount.decrementAndGet();
+      updates++;
+      try {
+        update.run();
+      } catch (final RuntimeException exception) {
+        logger.error("Error applying ui update.", exception);
+      }
+    }
+    lastFrameUpdatesProperty.set(updates);
+    if (!pendingUpdates.isEmpty()) {
+      logger.debug("Applied {} ui updates in {} ms, {} updates remaining.", updates,
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), pendingUpdatesCount.get());
+      return;
+    }
+    animationTimer.stop();
+    scheduled.set(false);
+    // an update might have been queued after polling the last one but before resetting the flag
+    if (!pendingUpdates.isEmpty() && scheduled.compareAndSet(false, true)) {
+      animationTimer.start();
+    }
+  }
+
+  /**
+   * The amount of updates that have been applied in the last frame.
+   */
+  public ReadOnlyIntegerProperty lastFrameUpdatesProperty() {
+    return lastFrameUpdatesProperty.getReadOnlyProperty();
+  }
+
+  public int getPendingUpdates() {
+    return pendingUpdatesCount.get();
+  }
+}
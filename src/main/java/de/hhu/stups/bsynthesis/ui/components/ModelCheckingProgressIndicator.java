@@ -79,12 +79,14 @@ public class ModelCheckingProgressIndicator extends GridPane implements Initiali
     lbStatus.textProperty().bind(
         Bindings.when(Bindings.isNotNull(modelCheckingService.resultProperty()))
             .then(statusTextProperty)
-            .otherwise(""));
+            .otherwise(modelCheckingService.incrementalVerdictProperty()));
     final StringExpression processedNodesBinding =
         Bindings.concat("Processed Nodes: ")
             .concat(modelCheckingService.processedNodesProperty())
             .concat(" / ")
-            .concat(modelCheckingService.totalNodesProperty());
+            .concat(modelCheckingService.totalNodesProperty())
+            .concat(EasyBind.map(modelCheckingService.currentSampleProperty(),
+                sample -> "\n" + sample).orElse(""));
     lbProcessedNodes.textProperty().bind(processedNodesBinding);
     lbProcessedNodes.visibleProperty().bind(modelCheckingService.runningProperty()
         .or(modelCheckingService.stateSpaceStatsProperty().isNotNull()));
@@ -0,0 +1,160 @@
+package de.hhu.stups.bsynthesis.ui.components;
+
+import de.hhu.stups.bsynthesis.ui.components.nodes.BasicNode;
+
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A uniform grid over the bounds of the {@link BasicNode nodes} on the validation pane. Each node
+ * is registered in all cells its bounds intersect, so that the nodes at a position or within an
+ * area are found by only looking at the corresponding cells. The index is used to find free
+ * positions for new nodes without overlapping existing ones. It is not thread-safe and should
+ * only be used on the JavaFX application thread.
+ */
+public class NodeSpatialIndex {
+
+  private static final double CELL_SIZE = 100.0;
+  private static final double SEARCH_STEP = 25.0;
+
+  private final Map<Long, Set<BasicNode>> nodesByCell;
+  private final Map<BasicNode, Bounds> boundsByNode;
+
+  public NodeSpatialIndex() {
+    nodesByCell = new HashMap<>();
+    boundsByNode = new HashMap<>();
+  }
+
+  /**
+   * Add the node with the given bounds to the index or update its bounds if already present.
+   */
+  public void put(final BasicNode basicNode, final Bounds bounds) {
+    remove(basicNode);
+    boundsByNode.put(basicNode, bounds);
+    forEachCell(bounds, cell -> nodesByCell.computeIfAbsent(cell, key -> new HashSet<>())
+        .add(basicNode));
+  }
+
+  /**
+   * Remove the node from the index.
+   */
+  public void remove(final BasicNode basicNode) {
+    final Bounds bounds = boundsByNode.remove(basicNode);
+    if (bounds == null) {
+      return;
+    }
+    forEachCell(bounds, cell -> {
+      final Set<BasicNode> cellNodes = nodesByCell.get(cell);
+      if (cellNodes != null && cellNodes.remove(basicNode) && cellNodes.isEmpty()) {
+        nodesByCell.remove(cell);
+      }
+    });
+  }
+
+  /**
+   * Return a node whose bounds contain the given position, or null.
+   */
+  public BasicNode getNodeAt(final double positionX, final double positionY) {
+    final Set<BasicNode> cellNodes = nodesByCell.get(getCell(
+        getCellIndex(positionX), getCellIndex(positionY)));
+    if (cellNodes == null) {
+      return null;
+    }
+    return cellNodes.stream()
+        .filter(node -> boundsByNode.get(node).contains(positionX, positionY))
+        .findFirst().orElse(null);
+  }
+
+  /**
+   * Check if the given area does not intersect any node other than the given one.
+   */
+  public boolean isFree(final Bounds area, final BasicNode ignoredNode) {
+    final int maxCol = getCellIndex(area.getMaxX());
+    final int maxRow = getCellIndex(area.getMaxY());
+    for (int col = getCellIndex(area.getMinX()); col <= maxCol; col++) {
+      for (int row = getCellIndex(area.getMinY()); row <= maxRow; row++) {
+        final Set<BasicNode> cellNodes = nodesByCell.get(getCell(col, row));
+        if (cellNodes == null) {
+          continue;
+        }
+        for (final BasicNode basicNode : cellNodes) {
+          if (basicNode != ignoredNode && boundsByNode.get(basicNode).intersects(area)) {
+            return false;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Find the free position for a node of the given size that is nearest to the preferred
+   * position. The node needs to be placed within the given area, e.g., one side of the validation
+   * pane, and keeps the given gap to other nodes. Return null if there is no such position.
+   */
+  public Point2D getFreePosition(final BasicNode basicNode,
+                                 final Point2D preferredPosition,
+                                 final double width,
+                                 final double height,
+                                 final Bounds area,
+                                 final double gap) {
+    final double minX = area.getMinX();
+    final double maxX = area.getMaxX() - width;
+    final double minY = area.getMinY();
+    final double maxY = area.getMaxY() - height;
+    final double startX = Math.min(Math.max(preferredPosition.getX(), minX), maxX);
+    final double startY = Math.min(Math.max(preferredPosition.getY(), minY), maxY);
+    final int maxDistance = (int) Math.ceil(Math.max(area.getWidth(), area.getHeight())
+        / SEARCH_STEP);
+    // check the positions on squares of increasing size around the preferred position
+    for (int distance = 0; distance <= maxDistance; distance++) {
+      for (int stepX = -distance; stepX <= distance; stepX++) {
+        final boolean isHorizontalEdge = stepX == -distance || stepX == distance;
+        for (int stepY = -distance; stepY <= distance;
+             stepY += isHorizontalEdge ? 1 : Math.max(1, 2 * distance)) {
+          final double positionX = startX + stepX * SEARCH_STEP;
+          final double positionY = startY + stepY * SEARCH_STEP;
+          if (positionX < minX || positionX > maxX || positionY < minY || positionY > maxY) {
+            continue;
+          }
+          if (isFree(new BoundingBox(positionX - gap, positionY - gap,
+              width + 2 * gap, height + 2 * gap), basicNode)) {
+            return new Point2D(positionX, positionY);
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  private void forEachCell(final Bounds bounds, final CellConsumer cellConsumer) {
+    final int minCol = getCellIndex(bounds.getMinX());
+    final int maxCol = getCellIndex(bounds.getMaxX());
+    final int minRow = getCellIndex(bounds.getMinY());
+    final int maxRow = getCellIndex(bounds.getMaxY());
+    for (int col = minCol; col <= maxCol; col++) {
+      for (int row = minRow; row <= maxRow; row++) {
+        cellConsumer.accept(getCell(col, row));
+      }
+    }
+  }
+
+  private static int getCellIndex(final double coordinate) {
+    return (int) Math.floor(coordinate / CELL_SIZE);
+  }
+
+  private static long getCell(final int col, final int row) {
+    return ((long) col << 32) | (row & 0xFFFFFFFFL);
+  }
+
+  @FunctionalInterface
+  private interface CellConsumer {
+    void accept(long cell);
+  }
+}
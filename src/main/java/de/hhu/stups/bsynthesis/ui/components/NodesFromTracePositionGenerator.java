@@ -6,43 +6,37 @@ import de.prob.statespace.Trace;
 
 import javafx.geometry.Point2D;
 
-import java.util.HashMap;
-
 /**
- * Stores a map containing values needed during the initial visualization of nodes from a trace
- * derived by the model checker. We want to position the nodes without any interference. We can
- * generate new positions for valid or invalid nodes according to the current ui state using {@link
- * #getNextValidNodePosition()} or {@link #getNextInvalidNodePosition()}.
+ * Stores the values needed during the initial visualization of nodes from a trace derived by the
+ * model checker. We can generate new positions for valid or invalid nodes according to the
+ * current ui state using {@link #getNextValidNodePosition()} or {@link
+ * #getNextInvalidNodePosition()}. The positions are only preferred positions, the
+ * {@link ValidationPane} moves a node to the nearest free position if it overlaps other nodes.
  */
 public class NodesFromTracePositionGenerator {
 
-  private final HashMap<String, Double> uiStateMap;
+  private final double halfWidth;
+  private final double nodesPerRow;
+  private final double nodesPerCol;
+  private final double nodeXPosition;
+  private final double nodeYPosition;
 
+  private int validNodes;
+  private int validNodesCol;
+  private int invalidNodes;
+  private int invalidNodesCol;
   private StateNode previousNode;
   private Trace previousTrace;
 
+  /**
+   * Compute the amount of nodes per row and column and the distance between two nodes.
+   */
   public NodesFromTracePositionGenerator() {
-    uiStateMap = new HashMap<>(11);
-    initializeMap();
-  }
-
-  private void initializeMap() {
-    final double halfWidth = ValidationPane.WIDTH / 2;
-    final double nodesPerRow =
-        (double) Math.round((halfWidth - StateNode.WIDTH * 2) / StateNode.WIDTH);
-    final double nodesPerCol =
-        (double) Math.round((ValidationPane.HEIGHT - StateNode.HEIGHT * 2) / StateNode.HEIGHT);
-    uiStateMap.put("halfWidth", halfWidth);
-    uiStateMap.put("nodesPerRow", nodesPerRow);
-    uiStateMap.put("nodesPerCol", nodesPerCol);
-    uiStateMap.put("nodeXPos", (double) Math.round(ValidationPane.WIDTH / nodesPerRow));
-    uiStateMap.put("nodeYPos", (double) Math.round(ValidationPane.HEIGHT / nodesPerCol));
-    setValidNodes(0.0);
-    setInvalidNodes(0.0);
-    uiStateMap.put("validNodesRow", 0.0);
-    setValidNodesCol(0.0);
-    uiStateMap.put("invalidNodesRow", 0.0);
-    setInvalidNodesCol(0.0);
+    halfWidth = ValidationPane.WIDTH / 2;
+    nodesPerRow = Math.round((halfWidth - StateNode.WIDTH * 2) / StateNode.WIDTH);
+    nodesPerCol = Math.round((ValidationPane.HEIGHT - StateNode.HEIGHT * 2) / StateNode.HEIGHT);
+    nodeXPosition = Math.round(ValidationPane.WIDTH / nodesPerRow);
+    nodeYPosition = Math.round(ValidationPane.HEIGHT / nodesPerCol);
   }
 
   /**
@@ -50,18 +44,12 @@ public class NodesFromTracePositionGenerator {
    * trace.
    */
   public Point2D getNextValidNodePosition() {
-    double validNodes = uiStateMap.get("validNodes");
-    double validNodesCol = uiStateMap.get("validNodesCol");
-    final double tempValid = (validNodes + 1) * getNodeXPosition();
-    final Point2D validNodePosition = new Point2D(
-        (uiStateMap.get("validNodesRow") % 2 < 0.000001) ? getHalfWidth() - tempValid : tempValid,
-        (validNodesCol + 1) * getNodeYPosition() + 50.0);
+    final Point2D validNodePosition = new Point2D(halfWidth - (validNodes + 1) * nodeXPosition,
+        (validNodesCol + 1) * nodeYPosition + 50.0);
     validNodes++;
-    if (validNodes > (uiStateMap.get("nodesPerCol"))) {
-      setValidNodes(0.0);
-      setValidNodesCol(validNodesCol + 1);
-    } else {
-      setValidNodes(validNodes);
+    if (validNodes > nodesPerCol) {
+      validNodes = 0;
+      validNodesCol++;
     }
     return validNodePosition;
   }
@@ -71,19 +59,13 @@ public class NodesFromTracePositionGenerator {
    * trace.
    */
   public Point2D getNextInvalidNodePosition() {
-    double invalidNodes = uiStateMap.get("invalidNodes");
-    double invalidNodesCol = uiStateMap.get("invalidNodesCol");
-    final double tempInvalid = (invalidNodes + 1) * getNodeXPosition();
     final Point2D invalidNodePosition = new Point2D(
-        (uiStateMap.get("invalidNodesRow") % 2 < 0.000001)
-            ? ValidationPane.WIDTH - tempInvalid : getHalfWidth() + tempInvalid,
-        (invalidNodesCol + 1) * getNodeYPosition() + 50.0);
+        ValidationPane.WIDTH - (invalidNodes + 1) * nodeXPosition,
+        (invalidNodesCol + 1) * nodeYPosition + 50.0);
     invalidNodes++;
-    if (invalidNodes > uiStateMap.get("nodesPerRow")) {
-      setInvalidNodes(0.0);
-      setInvalidNodesCol(invalidNodesCol + 1);
-    } else {
-      setInvalidNodes(invalidNodes);
+    if (invalidNodes > nodesPerRow) {
+      invalidNodes = 0;
+      invalidNodesCol++;
     }
     return invalidNodePosition;
   }
@@ -103,32 +85,4 @@ public class NodesFromTracePositionGenerator {
   public void setPreviousTrace(final Trace trace) {
     previousTrace = trace;
   }
-
-  private double getHalfWidth() {
-    return uiStateMap.get("halfWidth");
-  }
-
-  private double getNodeXPosition() {
-    return uiStateMap.get("nodeXPos");
-  }
-
-  private double getNodeYPosition() {
-    return uiStateMap.get("nodeYPos");
-  }
-
-  private void setValidNodes(final double value) {
-    uiStateMap.put("validNodes", value);
-  }
-
-  private void setInvalidNodes(final double value) {
-    uiStateMap.put("invalidNodes", value);
-  }
-
-  private void setValidNodesCol(final double value) {
-    uiStateMap.put("validNodesCol", value);
-  }
-
-  private void setInvalidNodesCol(final double value) {
-    uiStateMap.put("invalidNodesCol", value);
-  }
 }
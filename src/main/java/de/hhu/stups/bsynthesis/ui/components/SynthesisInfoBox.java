@@ -4,6 +4,7 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
 import de.hhu.stups.bsynthesis.services.ServiceDelegator;
+import de.hhu.stups.bsynthesis.services.StateSpacePool;
 import de.hhu.stups.bsynthesis.services.SynthesisContextService;
 import de.hhu.stups.bsynthesis.ui.Loader;
 import de.hhu.stups.bsynthesis.ui.SynthesisType;
@@ -37,11 +38,12 @@ import java.util.ResourceBundle;
 @Singleton
 public class SynthesisInfoBox extends VBox implements Initializable {
 
-  public static final double HEIGHT = 150.0;
+  public static final double HEIGHT = 175.0;
   public static final double MINIMIZED_HEIGHT = 40.0;
   private static final double DIFFERENCE_HEIGHT = HEIGHT - MINIMIZED_HEIGHT;
 
   private final SynthesisContextService synthesisContextService;
+  private final StateSpacePool stateSpacePool;
   private final BooleanProperty isMinimizedProperty;
   private final BooleanProperty showInfoProperty;
   private final DoubleProperty positionXProperty;
@@ -60,6 +62,9 @@ public class SynthesisInfoBox extends VBox implements Initializable {
   private Label lbInfo;
   @FXML
   @SuppressWarnings("unused")
+  private Label lbStateSpacePool;
+  @FXML
+  @SuppressWarnings("unused")
   private FontAwesomeIconView iconShowOrHide;
   @FXML
   @SuppressWarnings("unused")
@@ -72,6 +77,7 @@ public class SynthesisInfoBox extends VBox implements Initializable {
   public SynthesisInfoBox(final FXMLLoader loader,
                           final ServiceDelegator serviceDelegator) {
     this.synthesisContextService = serviceDelegator.synthesisContextService();
+    this.stateSpacePool = serviceDelegator.proBApiService().getStateSpacePool();
 
     isMinimizedProperty = new SimpleBooleanProperty(false);
     showInfoProperty = new SimpleBooleanProperty(false);
@@ -126,6 +132,26 @@ public class SynthesisInfoBox extends VBox implements Initializable {
         Platform.runLater(() -> infoTextProperty.set(""));
       }
     });
+    // the pool is updated by the threads loading and releasing the statespaces
+    EasyBind.subscribe(stateSpacePool.sizeProperty(), size -> updateStateSpacePoolInfo());
+    EasyBind.subscribe(stateSpacePool.idleProperty(), idle -> updateStateSpacePoolInfo());
+    EasyBind.subscribe(stateSpacePool.loadingProperty(), loading -> updateStateSpacePoolInfo());
+    EasyBind.subscribe(stateSpacePool.lastLoadTimeProperty(),
+        lastLoadTime -> updateStateSpacePoolInfo());
+  }
+
+  /**
+   * Show the occupancy of the {@link StateSpacePool} and the time it took to load the most recently
+   * loaded statespace.
+   */
+  private void updateStateSpacePoolInfo() {
+    final int size = stateSpacePool.sizeProperty().get();
+    final int idle = stateSpacePool.idleProperty().get();
+    final int loading = stateSpacePool.loadingProperty().get();
+    final long lastLoadTime = stateSpacePool.lastLoadTimeProperty().get();
+    final String poolInfo = String.format("Statespaces: %d busy, %d idle, %d loading", size - idle,
+        idle, loading) + (lastLoadTime > 0 ? " (last loaded in " + lastLoadTime + " ms)" : "");
+    Platform.runLater(() -> lbStateSpacePool.setText(poolInfo));
   }
 
   private void initializeIcons() {
@@ -166,12 +192,14 @@ public class SynthesisInfoBox extends VBox implements Initializable {
         getChildren().add(lbCurrentOperation);
         getChildren().add(lbSynthesisType);
         getChildren().add(lbInfo);
+        getChildren().add(lbStateSpacePool);
       }
     });
     if (minimize) {
       getChildren().remove(lbCurrentOperation);
       getChildren().remove(lbSynthesisType);
       getChildren().remove(lbInfo);
+      getChildren().remove(lbStateSpacePool);
     }
   }
 
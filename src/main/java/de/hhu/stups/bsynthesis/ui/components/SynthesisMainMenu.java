@@ -58,26 +58,31 @@ import javafx.stage.Stage;
 
 import org.apache.commons.lang.math.NumberUtils;
 import org.fxmisc.easybind.EasyBind;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
 import java.util.regex.Pattern;
 
 public class SynthesisMainMenu extends MenuBar implements Initializable {
 
+  private final Logger logger = LoggerFactory.getLogger(getClass());
   private final ObjectProperty<Stage> stageProperty;
   private final ValidationPane validationPane;
   private final SynthesisContextService synthesisContextService;
   private final SynthesisInfoBox synthesisInfoBox;
   private final ModelCheckingService modelCheckingService;
   private final BooleanProperty synthesisRunningProperty;
-  private final BooleanProperty ignoreModelCheckerProperty;
   private final UiService uiService;
   private final ProBApiService proBApiService;
   private final SynthesizeImplicitIfStatements synthesizeImplicitIfStatements;
@@ -114,6 +119,9 @@ public class SynthesisMainMenu extends MenuBar implements Initializable {
   private MenuItem menuItemStopCheckModel;
   @FXML
   @SuppressWarnings("unused")
+  private MenuItem menuItemExportMetrics;
+  @FXML
+  @SuppressWarnings("unused")
   private MenuItem menuItemRunSynthesis;
   @FXML
   @SuppressWarnings("unused")
@@ -132,6 +140,9 @@ public class SynthesisMainMenu extends MenuBar implements Initializable {
   private CheckMenuItem checkMenuItemIgnoreChecker;
   @FXML
   @SuppressWarnings("unused")
+  private CheckMenuItem checkMenuItemSwarmChecking;
+  @FXML
+  @SuppressWarnings("unused")
   private MenuItem menuItemExpandAll;
   @FXML
   @SuppressWarnings("unused")
@@ -154,6 +165,9 @@ public class SynthesisMainMenu extends MenuBar implements Initializable {
   @FXML
   @SuppressWarnings("unused")
   private MenuItem radioMenuItemZ3;
+  @FXML
+  @SuppressWarnings("unused")
+  private MenuItem radioMenuItemPortfolio;
 
   /**
    * Initialize the variables derived by the injector and load the fxml resource.
@@ -173,7 +187,6 @@ public class SynthesisMainMenu extends MenuBar implements Initializable {
     this.proBApiService = serviceDelegator.proBApiService();
     stageProperty = new SimpleObjectProperty<>();
     synthesisRunningProperty = new SimpleBooleanProperty(false);
-    ignoreModelCheckerProperty = new SimpleBooleanProperty(false);
 
     Loader.loadFxml(loader, this, "synthesis_main_menu.fxml");
   }
@@ -181,10 +194,17 @@ public class SynthesisMainMenu extends MenuBar implements Initializable {
   @Override
   public void initialize(final URL location, final ResourceBundle resources) {
     initializeMenuItemBindings();
-    radioMenuItemProB.onActionProperty().addListener((observable, oldValue, newValue) ->
-        synthesisContextService.solverBackendProperty().set(SolverBackend.PROB));
-    radioMenuItemZ3.onActionProperty().addListener((observable, oldValue, newValue) ->
-        synthesisContextService.solverBackendProperty().set(SolverBackend.Z3));
+    radioMenuItemProB.setOnAction(event -> {
+      synthesisContextService.solverBackendProperty().set(SolverBackend.PROB);
+      synthesisContextService.usePortfolioProperty().set(false);
+    });
+    radioMenuItemZ3.setOnAction(event -> {
+      synthesisContextService.solverBackendProperty().set(SolverBackend.Z3);
+      synthesisContextService.usePortfolioProperty().set(false);
+    });
+    // race all solver backends on each library expansion
+    radioMenuItemPortfolio.setOnAction(event ->
+        synthesisContextService.usePortfolioProperty().set(true));
     // synchronize statespaces after model checking
     EasyBind.subscribe(modelCheckingService.resultProperty(), modelCheckingResult ->
         proBApiService.synchronizeStateSpaces());
@@ -203,7 +223,7 @@ public class SynthesisMainMenu extends MenuBar implements Initializable {
     final BooleanBinding disableMenu = synthesisContextService.stateSpaceProperty().isNull()
         .or(synthesisRunningProperty).or(modelCheckingService.indicatorPresentProperty());
     final BooleanBinding extendMachineDisabled = disableMenu
-        .or(Bindings.when(ignoreModelCheckerProperty).then(false)
+        .or(Bindings.when(modelCheckingService.ignoreModelCheckerProperty()).then(false)
             .otherwise(modelCheckingService.errorTraceProperty().isNotNull()
                 .or(modelCheckingService.resultProperty().isNull())
                 .or(modelCheckingService.invariantViolationInitialState())));
@@ -216,23 +236,30 @@ public class SynthesisMainMenu extends MenuBar implements Initializable {
     menuItemShrinkAll.disableProperty().bind(disableMenu);
     menuItemCheckModel.disableProperty().bind(disableMenu
         .or(modelCheckingService.runningProperty())
-        .or(ignoreModelCheckerProperty)
+        .or(modelCheckingService.ignoreModelCheckerProperty())
         .or(modelCheckingService.resultProperty().isNotNull()));
     menuItemStopCheckModel.disableProperty().bind(disableMenu
         .or(modelCheckingService.runningProperty().not()));
+    menuItemExportMetrics.disableProperty().bind(
+        modelCheckingService.currentSampleProperty().isNull());
     menuItemVisualizeOperation.disableProperty().bind(extendMachineDisabled);
     menuItemNewOperation.disableProperty().bind(extendMachineDisabled);
     menuItemModifyInvariants.disableProperty().bind(extendMachineDisabled);
     menuItemNodesFromTrace.disableProperty().bind(disableMenu
-        .or(ignoreModelCheckerProperty)
+        .or(modelCheckingService.ignoreModelCheckerProperty())
         .or(modelCheckingService.invariantViolationInitialState())
         .or(modelCheckingService.errorTraceProperty().isNull()));
     checkMenuItemInfo.selectedProperty().bindBidirectional(synthesisInfoBox.showInfoProperty());
     checkMenuItemInfo.disableProperty().bind(disableMenu
         .or(synthesisContextService.synthesisTypeProperty().isEqualTo(SynthesisType.NONE)));
-    checkMenuItemIgnoreChecker.selectedProperty().bindBidirectional(ignoreModelCheckerProperty);
+    checkMenuItemIgnoreChecker.selectedProperty()
+        .bindBidirectional(modelCheckingService.ignoreModelCheckerProperty());
     checkMenuItemIgnoreChecker.disableProperty().bind(disableMenu
         .or(modelCheckingService.runningProperty()));
+    // run further checkers with diversified options on the pooled statespaces
+    checkMenuItemSwarmChecking.selectedProperty()
+        .bindBidirectional(modelCheckingService.swarmProperty());
+    checkMenuItemSwarmChecking.disableProperty().bind(modelCheckingService.runningProperty());
     menuItemVerifyAllNodes.disableProperty().bind(disableMenu
         .or(synthesisRunningProperty)
         .or(validationPane.getNodes().emptyProperty()));
@@ -416,6 +443,26 @@ public class SynthesisMainMenu extends MenuBar implements Initializable {
     modelCheckingService.indicatorPresentProperty().set(false);
   }
 
+  /**
+   * Export the samples of the current or last model checking run to a .csv file.
+   */
+  @FXML
+  @SuppressWarnings("unused")
+  public void exportModelCheckingMetrics() {
+    final FileChooser fileChooser = new FileChooser();
+    fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV (*.csv)", "*.csv"));
+    final File file = fileChooser.showSaveDialog(stageProperty.get());
+    if (file == null) {
+      return;
+    }
+    try {
+      modelCheckingService.getMetrics().writeCsv(file.toPath());
+    } catch (final IOException ioException) {
+      logger.error("IOException when exporting the model checking metrics to " + file.getPath(),
+          ioException);
+    }
+  }
+
   /**
    * Save the machine as.
    */
@@ -441,20 +488,38 @@ public class SynthesisMainMenu extends MenuBar implements Initializable {
   }
 
   /**
-   * Validate all state nodes by checking the current machine invariants on each state.
+   * Validate all state nodes by checking the current machine invariants on each state. The states
+   * are verified in chunks in the background by the {@link ProBApiService} and the nodes are
+   * updated at once afterwards.
    */
   @FXML
   @SuppressWarnings("unused")
   public void verifyAllNodes() {
-    validationPane.getNodes().forEach(basicNode ->
-        new Thread(() -> {
-          if (basicNode instanceof TransitionNode) {
-            final TransitionNode transitionNode = (TransitionNode) basicNode;
-            transitionNode.validateTransition();
-            return;
-          }
-          ((StateNode) basicNode).validateState();
-        }).start());
+    final Map<StateNode, String> stateEqualities = new HashMap<>();
+    validationPane.getNodes().forEach(basicNode -> {
+      final List<StateNode> stateNodes = basicNode instanceof TransitionNode
+          ? ((TransitionNode) basicNode).getStateNodes()
+          : Collections.singletonList((StateNode) basicNode);
+      stateNodes.forEach(stateNode -> {
+        final String stateEquality = stateNode.getStateEquality();
+        if (stateEquality != null) {
+          stateEqualities.put(stateNode, stateEquality);
+        }
+      });
+    });
+    if (stateEqualities.isEmpty()) {
+      return;
+    }
+    final int statesToVerify = new HashSet<>(stateEqualities.values()).size();
+    synthesisInfoBox.showInfoProperty().set(true);
+    synthesisInfoBox.infoTextProperty().set("Verifying " + statesToVerify + " states.");
+    proBApiService.verifyStates(stateEqualities.values(), verifiedStates ->
+        Platform.runLater(() -> synthesisInfoBox.infoTextProperty().set(
+            "Verified " + verifiedStates + " of " + statesToVerify + " states.")))
+        .thenAccept(stateVerification -> Platform.runLater(() ->
+            stateEqualities.forEach((stateNode, stateEquality) ->
+                stateNode.setValidatedState(stateVerification.getResult(stateEquality),
+                    stateVerification.getState(stateEquality)))));
   }
 
   /**
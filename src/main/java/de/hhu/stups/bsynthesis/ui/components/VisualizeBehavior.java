@@ -3,6 +3,7 @@ package de.hhu.stups.bsynthesis.ui.components;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
+import de.hhu.stups.bsynthesis.prob.FindStatesCommand;
 import de.hhu.stups.bsynthesis.prob.VarValueTuple;
 import de.hhu.stups.bsynthesis.prob.VisualizeInvariantsCommand;
 import de.hhu.stups.bsynthesis.prob.VisualizeOperationCommand;
@@ -14,21 +15,24 @@ import de.hhu.stups.bsynthesis.ui.components.nodes.NodeState;
 import de.hhu.stups.bsynthesis.ui.components.nodes.StateNode;
 import de.hhu.stups.bsynthesis.ui.components.nodes.TransitionNode;
 import de.hhu.stups.bsynthesis.ui.controller.ValidationPane;
-import de.prob.animator.command.FindStateCommand;
-import de.prob.animator.domainobjects.ClassicalB;
-import de.prob.animator.domainobjects.FormulaExpand;
+import de.prob.exception.ProBError;
 import de.prob.statespace.State;
 import de.prob.statespace.StateSpace;
 import javafx.beans.property.ListProperty;
 import javafx.beans.property.SimpleListProperty;
 import javafx.collections.FXCollections;
 import javafx.geometry.Point2D;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Visualize an existing operation using {@link #visualizeOperation(String, TransitionNodeFactory)}
@@ -39,6 +43,7 @@ import java.util.Set;
 @Singleton
 public class VisualizeBehavior {
 
+  private final Logger logger = LoggerFactory.getLogger(getClass());
   private final SynthesisContextService synthesisContextService;
   private final int maxPerRow =
       (int) Math.floor((ValidationPane.WIDTH / 2) / (StateNode.WIDTH * 3));
@@ -76,18 +81,25 @@ public class VisualizeBehavior {
     stateNodes.put("valid", validStates);
     stateNodes.put("invalid", invalidStates);
 
-    for (final String validStateEquality : validStateEqualities) {
+    // find all states using a single call to prolog
+    final List<String> stateEqualities = new ArrayList<>(validStateEqualities);
+    stateEqualities.addAll(invalidStateEqualities);
+    final List<State> states = findStates(stateEqualities);
+
+    for (final State validState : states.subList(0, validStateEqualities.size())) {
+      if (validState == null) {
+        continue;
+      }
       final Point2D pos = getPositionForRowAndCol(validRow, validCol);
-      validStates.add(stateNodeFactory.create(getStateForEqualityPred(validStateEquality), null,
-          pos, NodeState.TENTATIVE));
+      validStates.add(stateNodeFactory.create(validState, null, pos, NodeState.TENTATIVE));
       validCol++;
       if (validCol == maxPerRow - 1) {
         validCol = 0;
         validRow++;
       }
     }
-    final Map<State, Point2D> invalidTuples =
-        getStatePositionTuplesForNegativeEqualities(invalidStateEqualities);
+    final Map<State, Point2D> invalidTuples = getStatePositionTuplesForNegativeStates(
+        states.subList(validStateEqualities.size(), states.size()));
     invalidTuples.forEach((state, pos) ->
         invalidStates.add(stateNodeFactory.create(state, null, pos, NodeState.TENTATIVE)));
     return stateNodes;
@@ -97,15 +109,17 @@ public class VisualizeBehavior {
    * Return a map of tuples of {@link State} and a {@link Point2D} describing the position on the
    * {@link ValidationPane}.
    */
-  private Map<State, Point2D> getStatePositionTuplesForNegativeEqualities(
-      final List<String> invalidStateEqualities) {
+  private Map<State, Point2D> getStatePositionTuplesForNegativeStates(
+      final List<State> invalidStates) {
     int invalidRow = 0;
     int invalidCol = 0;
     final Map<State, Point2D> invalidTuples = new HashMap<>();
-    for (final String invalidStateEquality : invalidStateEqualities) {
+    for (final State invalidState : invalidStates) {
+      if (invalidState == null) {
+        continue;
+      }
       final Point2D pos = getPositionForRowAndCol(invalidRow, invalidCol);
-      invalidTuples.put(getStateForEqualityPred(invalidStateEquality),
-          pos.add(ValidationPane.WIDTH / 2, 0));
+      invalidTuples.put(invalidState, pos.add(ValidationPane.WIDTH / 2, 0));
       invalidCol++;
       if (invalidCol == maxPerRow - 1) {
         invalidCol = 0;
@@ -116,16 +130,41 @@ public class VisualizeBehavior {
   }
 
   /**
-   * Use {@link FindStateCommand} to compute the state for a given string describing a state
-   * equality predicate.
+   * Use {@link FindStatesCommand} to compute the states for the given strings describing state
+   * equality predicates using a single call to prolog. A state is null if it could not be found.
+   * Since a single erroneous predicate fails the whole call, the states are then looked up one by
+   * one so that only the erroneous predicates are skipped.
    */
-  private State getStateForEqualityPred(final String stateEquality) {
+  private List<State> findStates(final List<String> stateEqualities) {
+    if (stateEqualities.isEmpty()) {
+      return Collections.emptyList();
+    }
     final StateSpace stateSpace = synthesisContextService.getStateSpace();
-    final FindStateCommand findStateCommand =
-        new FindStateCommand(stateSpace, new ClassicalB(stateEquality, FormulaExpand.EXPAND),
-            false);
-    stateSpace.execute(findStateCommand);
-    return stateSpace.getState(findStateCommand.getStateId());
+    try {
+      return executeFindStatesCommand(stateSpace, stateEqualities);
+    } catch (final ProBError proBError) {
+      logger.warn("Error finding the states using a single call, find them one by one.",
+          proBError);
+    }
+    return stateEqualities.stream()
+        .map(stateEquality -> findState(stateSpace, stateEquality))
+        .collect(Collectors.toList());
+  }
+
+  private State findState(final StateSpace stateSpace, final String stateEquality) {
+    try {
+      return executeFindStatesCommand(stateSpace, Collections.singletonList(stateEquality)).get(0);
+    } catch (final ProBError proBError) {
+      logger.warn("Error finding the state for " + stateEquality, proBError);
+      return null;
+    }
+  }
+
+  private List<State> executeFindStatesCommand(final StateSpace stateSpace,
+                                               final List<String> stateEqualities) {
+    final FindStatesCommand findStatesCommand = new FindStatesCommand(stateSpace, stateEqualities);
+    stateSpace.execute(findStatesCommand);
+    return findStatesCommand.getStates();
   }
 
   /**
@@ -169,42 +208,49 @@ public class VisualizeBehavior {
     transitionNodes.put("valid", validTransitions);
     transitionNodes.put("invalid", invalidTransitions);
 
-    for (final VarValueTuple varValueTuple : validTransitionEqualities) {
-      validTransitions.add(
-          getTransitionNodeFromTuple(validRow, validCol, varValueTuple, transitionNodeFactory));
+    // find the input and output states of all valid transitions and the invalid states using a
+    // single call to prolog
+    final List<String> stateEqualities = new ArrayList<>();
+    validTransitionEqualities.forEach(varValueTuple -> {
+      stateEqualities.add(varValueTuple.getVar());
+      stateEqualities.add(varValueTuple.getValue());
+    });
+    stateEqualities.addAll(invalidStateEqualities);
+    final List<State> states = findStates(stateEqualities);
+    final int validStatesAmount = validTransitionEqualities.size() * 2;
+
+    for (int i = 0; i < validStatesAmount; i += 2) {
+      final State inputState = states.get(i);
+      final State outputState = states.get(i + 1);
+      if (inputState == null || outputState == null) {
+        continue;
+      }
+      validTransitions.add(getTransitionNode(validRow, validCol, inputState, outputState,
+          transitionNodeFactory));
       validCol++;
       if (validCol == maxPerRow - 1) {
         validCol = 0;
         validRow++;
       }
     }
-    final Map<State, Point2D> invalidTuples =
-        getStatePositionTuplesForNegativeEqualities(invalidStateEqualities);
+    final Map<State, Point2D> invalidTuples = getStatePositionTuplesForNegativeStates(
+        states.subList(validStatesAmount, states.size()));
     invalidTuples.forEach((state, pos) ->
         invalidTransitions.add(transitionNodeFactory.create(state, null, pos,
             NodeState.TENTATIVE)));
     return transitionNodes;
   }
 
-  private TransitionNode getTransitionNodeFromTuple(
-      int validRow, int validCol, final VarValueTuple varValueTuple,
-      final TransitionNodeFactory transitionNodeFactory) {
-    final StateSpace stateSpace = synthesisContextService.getStateSpace();
-    final FindStateCommand findInputStateCommand =
-        new FindStateCommand(stateSpace, new ClassicalB(varValueTuple.getVar(),
-            FormulaExpand.EXPAND), false);
-    stateSpace.execute(findInputStateCommand);
-    final State inputState = stateSpace.getState(findInputStateCommand.getStateId());
-    final FindStateCommand findOutputStateCommand =
-        new FindStateCommand(stateSpace, new ClassicalB(varValueTuple.getValue(),
-            FormulaExpand.EXPAND), false);
-    stateSpace.execute(findOutputStateCommand);
+  private TransitionNode getTransitionNode(final int validRow,
+                                           final int validCol,
+                                           final State inputState,
+                                           final State outputState,
+                                           final TransitionNodeFactory transitionNodeFactory) {
     final int offsetX = 50 + (validCol != 0 ? 25 : 0);
     final int offsetY = 50 + (validRow != 0 ? 25 : 0);
     final Point2D pos = new Point2D(
         validCol * StateNode.WIDTH * 3 + offsetX,
         validRow * StateNode.HEIGHT + offsetY);
-    final State outputState = stateSpace.getState(findOutputStateCommand.getStateId());
     return transitionNodeFactory.create(inputState, outputState, pos, NodeState.TENTATIVE);
   }
 
@@ -31,7 +31,7 @@ import java.util.Optional;
  */
 public class BLibrary {
 
-  private static final int MAXIMUM_LIBRARY_EXPANSION = 10;
+  public static final int MAXIMUM_LIBRARY_EXPANSION = 10;
 
   private final Logger logger = LoggerFactory.getLogger(getClass());
   private final SetProperty<LibraryComponent> predicatesProperty =
@@ -77,7 +77,7 @@ public class LibraryComponent {
     return amountProperty;
   }
 
-  private String getInternalName() {
+  public String getInternalName() {
     return internalNameProperty.get();
   }
 
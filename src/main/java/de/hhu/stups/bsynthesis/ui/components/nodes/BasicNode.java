@@ -21,9 +21,6 @@ import javafx.scene.layout.CornerRadii;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
 
-import org.reactfx.util.FxTimer;
-import org.reactfx.util.Timer;
-
 public class BasicNode extends StackPane {
 
   public final UiService uiService;
@@ -39,7 +36,6 @@ public class BasicNode extends StackPane {
   private final BooleanProperty moveIsEnabledProperty;
   private final BooleanProperty transparentBackgroundProperty;
   private final BooleanProperty userValidationProperty;
-  private final Timer updateUserValidationTimer;
 
   BasicNode(final Point2D position,
             final NodeState nodeState,
@@ -68,12 +64,6 @@ public class BasicNode extends StackPane {
 
     contextMenu = uiService.getNodeContextMenuFactory().create(this);
 
-    // update the user validation state of the node on move but add a small delay to prevent
-    // performance issues
-    updateUserValidationTimer = FxTimer.create(java.time.Duration.ofMillis(250), () ->
-        uiService.validationPaneEventSource().push(
-            new ValidationPaneEvent(ValidationPaneEventType.NODE_USER_VALIDATION, this)));
-
     setLayoutX(position.getX());
     setLayoutY(position.getY());
     initializeContextMenuEvent();
@@ -107,10 +97,6 @@ public class BasicNode extends StackPane {
 
     transparentBackgroundProperty.addListener((observable, oldValue, newValue) ->
         refreshBackgroundColor());
-    positionXProperty.addListener((observable, oldValue, newValue) ->
-        updateUserValidationTimer.restart());
-    positionYProperty.addListener((observable, oldValue, newValue) ->
-        updateUserValidationTimer.restart());
   }
 
   void refreshBackgroundColor() {
@@ -4,6 +4,7 @@ import com.google.common.base.Joiner;
 import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
 
+import de.hhu.stups.bsynthesis.prob.StateValueCache;
 import de.hhu.stups.bsynthesis.services.DaemonThread;
 import de.hhu.stups.bsynthesis.services.ServiceDelegator;
 import de.hhu.stups.bsynthesis.services.SynthesisContextService;
@@ -14,7 +15,6 @@ import de.hhu.stups.bsynthesis.ui.Loader;
 import de.prob.animator.command.FindStateCommand;
 import de.prob.animator.domainobjects.ClassicalB;
 import de.prob.animator.domainobjects.FormulaExpand;
-import de.prob.animator.domainobjects.IEvalElement;
 import de.prob.statespace.State;
 import de.prob.statespace.StateSpace;
 import de.prob.statespace.Trace;
@@ -54,9 +54,19 @@ import javafx.util.Duration;
 import org.fxmisc.easybind.EasyBind;
 
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.annotation.Nullable;
 
@@ -67,6 +77,15 @@ public class StateNode extends BasicNode implements Initializable {
   public static final double EXPANDED_WIDTH = 400;
   public static final double EXPANDED_HEIGHT = 300;
 
+  /**
+   * The variable values of the nodes' states are evaluated on a single background thread. Nodes
+   * created in the meantime are queued and evaluated at once using the {@link StateValueCache}.
+   */
+  private static final ExecutorService TABLE_VIEW_VALUES_EXECUTOR =
+      Executors.newSingleThreadExecutor(DaemonThread::getDaemonThread);
+  private static final Queue<StateNode> PENDING_TABLE_VIEW_VALUES =
+      new ConcurrentLinkedQueue<>();
+
   private final ObjectProperty<State> stateProperty;
   private final MapProperty<String, String> tableViewStateMapProperty;
   private final SynthesisContextService synthesisContextService;
@@ -77,6 +96,8 @@ public class StateNode extends BasicNode implements Initializable {
   private final UiService uiService;
   private final ObjectProperty<StateNode> equivalentNodeProperty;
 
+  private volatile CompletableFuture<Void> tableViewValuesLoaded;
+
   @FXML
   @SuppressWarnings("unused")
   private GridPane contentGridPane;
@@ -120,6 +141,7 @@ public class StateNode extends BasicNode implements Initializable {
     tableViewStateMapProperty = new SimpleMapProperty<>(FXCollections.observableHashMap());
     stateFromModelCheckingProperty = new SimpleBooleanProperty(false);
     equivalentNodeProperty = new SimpleObjectProperty<>();
+    tableViewValuesLoaded = CompletableFuture.completedFuture(null);
 
     traceProperty().set(trace);
     setLayoutX(position.getX());
@@ -236,13 +258,18 @@ public class StateNode extends BasicNode implements Initializable {
     tableViewState.getItems().clear();
     final ObservableSet<String> machineVarNames = synthesisContextService.getMachineVarNames();
     if (machineVarNames != null) {
+      final State state = getState();
+      final Map<String, String> cachedValues = state == null
+          ? Collections.emptyMap() : StateValueCache.getCachedValues(state);
       machineVarNames.forEach(machineVarName -> {
         tableViewStateMapProperty.put(machineVarName, "");
         tableViewState.getItems().add(new StateTableCell(
-            machineVarName, getState() != null && getState().isInitialised()
-            ? getState().eval(machineVarName, FormulaExpand.EXPAND).toString() : "",
+            machineVarName, cachedValues.getOrDefault(machineVarName, ""),
             uiService.currentVarStatesMapProperty().get(machineVarName)));
       });
+      if (state != null && !cachedValues.keySet().containsAll(machineVarNames)) {
+        loadTableViewValues();
+      }
     }
     tableColumnVarName.setCellValueFactory(param -> param.getValue().varNameProperty());
     tableColumnInputState.setCellValueFactory(param -> param.getValue().inputStateProperty());
@@ -254,6 +281,60 @@ public class StateNode extends BasicNode implements Initializable {
     });
   }
 
+  /**
+   * Queue the node to evaluate the variable values of its state in the background.
+   */
+  private void loadTableViewValues() {
+    final CompletableFuture<Void> valuesLoaded = new CompletableFuture<>();
+    tableViewValuesLoaded = valuesLoaded;
+    PENDING_TABLE_VIEW_VALUES.add(this);
+    TABLE_VIEW_VALUES_EXECUTOR.execute(() -> {
+      try {
+        evaluatePendingTableViewValues();
+      } finally {
+        // complete in any case to not block validation, e.g., if evaluating the values failed
+        Platform.runLater(() -> valuesLoaded.complete(null));
+      }
+    });
+  }
+
+  /**
+   * Evaluate the variable values of all queued nodes' states at once and set them in the nodes'
+   * table views.
+   */
+  private static void evaluatePendingTableViewValues() {
+    final Map<StateSpace, Map<State, List<StateNode>>> pendingNodes = new HashMap<>();
+    final Set<String> varNames = new HashSet<>();
+    StateNode stateNode;
+    while ((stateNode = PENDING_TABLE_VIEW_VALUES.poll()) != null) {
+      final State state = stateNode.getState();
+      if (state != null) {
+        pendingNodes.computeIfAbsent(state.getStateSpace(), stateSpace -> new HashMap<>())
+            .computeIfAbsent(state, key -> new ArrayList<>()).add(stateNode);
+        stateNode.tableViewState.getItems().forEach(stateTableCell ->
+            varNames.add(stateTableCell.getVarName()));
+      }
+    }
+    pendingNodes.values().forEach(nodesByState -> {
+      final Map<State, Map<String, String>> values =
+          StateValueCache.getValues(nodesByState.keySet(), varNames);
+      Platform.runLater(() -> nodesByState.forEach((state, stateNodes) ->
+          stateNodes.forEach(node -> node.setTableViewValues(state, values.get(state)))));
+    });
+  }
+
+  private void setTableViewValues(final State state, final Map<String, String> values) {
+    if (state != getState()) {
+      return;
+    }
+    tableViewState.getItems().forEach(stateTableCell -> {
+      final String value = values.get(stateTableCell.getVarName());
+      if (value != null) {
+        stateTableCell.setInputState(value);
+      }
+    });
+  }
+
   /**
    * Return the {@link StateNode predecessor node} of {@link this} using the {@link #traceProperty()
    * current trace}.
@@ -389,34 +470,66 @@ public class StateNode extends BasicNode implements Initializable {
    * NodeState#INVARIANT_VIOLATED}.
    */
   public void validateState() {
-    if (!validateInputValues(tableViewState.getItems())) {
+    // the variable values of a node's state might not have been evaluated yet
+    tableViewValuesLoaded.thenRun(this::findState);
+  }
+
+  private void findState() {
+    final String stateEquality = getStateEquality();
+    if (stateEquality == null) {
       return;
     }
     final StateSpace stateSpace = synthesisContextService.getStateSpace();
     // create equality predicate with variable values
-    final FindStateCommand findStateCommand =
-        new FindStateCommand(stateSpace, getStateEqualityPredicate(), false);
+    final FindStateCommand findStateCommand = new FindStateCommand(stateSpace,
+        new ClassicalB(stateEquality, FormulaExpand.EXPAND), false);
     DaemonThread.getDaemonThread(() -> {
       stateSpace.execute(findStateCommand);
       final FindStateCommand.ResultType resultType = findStateCommand.getResult();
-      if (resultType.equals(FindStateCommand.ResultType.ERROR)) {
-        return;
-      }
-      if (resultType.equals(FindStateCommand.ResultType.NO_STATE_FOUND)) {
-        nodeStateProperty().set(NodeState.INVARIANT_VIOLATED);
-        return;
-      }
-      Platform.runLater(() -> {
-        stateProperty.set(stateSpace.getState(findStateCommand.getStateId()));
-        nodeStateProperty().set(stateProperty.get().isInvariantOk()
-            ? NodeState.VALID : NodeState.INVARIANT_VIOLATED);
-      });
+      final State state = FindStateCommand.ResultType.STATE_FOUND.equals(resultType)
+          ? stateSpace.getState(findStateCommand.getStateId()) : null;
+      Platform.runLater(() -> setValidatedState(resultType, state));
+    }).start();
+  }
 
-      if (!synthesisContextService.getSynthesisType().isAction()) {
-        uiService.validationPaneEventSource().push(
-            new ValidationPaneEvent(ValidationPaneEventType.CHECK_DUPLICATE_NODE, this));
+  /**
+   * Set the node state according to the result of finding a state for the
+   * {@link #getStateEquality() state equality predicate}, e.g., when verifying several nodes at
+   * once. Has to be called on the JavaFX application thread.
+   */
+  public void setValidatedState(final FindStateCommand.ResultType resultType,
+                                final State state) {
+    if (FindStateCommand.ResultType.ERROR.equals(resultType)) {
+      return;
+    }
+    if (FindStateCommand.ResultType.NO_STATE_FOUND.equals(resultType) || state == null) {
+      nodeStateProperty().set(NodeState.INVARIANT_VIOLATED);
+      return;
+    }
+    stateProperty.set(state);
+    nodeStateProperty().set(state.isInvariantOk()
+        ? NodeState.VALID : NodeState.INVARIANT_VIOLATED);
+    if (!synthesisContextService.getSynthesisType().isAction()) {
+      uiService.validationPaneEventSource().push(
+          new ValidationPaneEvent(ValidationPaneEventType.CHECK_DUPLICATE_NODE, this));
+    }
+  }
+
+  /**
+   * Return the equality predicate of the machine variable values that are not set to be ignored,
+   * or null if not all of these values are filled.
+   */
+  public String getStateEquality() {
+    if (!validateInputValues(tableViewState.getItems())) {
+      return null;
+    }
+    final Set<String> predicateStringSet = new HashSet<>(tableViewState.getItems().size());
+    tableViewState.getItems().forEach(stateTableCell -> {
+      if (!stateTableCell.ignoreVarProperty().get()) {
+        predicateStringSet.add(stateTableCell.getVarName() + "=" + stateTableCell.getInputState());
       }
-    }).start();
+    });
+    return Joiner.on(" & ").join(predicateStringSet);
   }
 
   /**
@@ -444,18 +557,4 @@ public class StateNode extends BasicNode implements Initializable {
   public SetProperty<BasicNode> predecessorProperty() {
     return predecessorProperty;
   }
-
-  /**
-   * Create equality nodes of the machine variable values that are not set to be ignored.
-   */
-  private IEvalElement getStateEqualityPredicate() {
-    final Set<String> predicateStringSet = new HashSet<>(tableViewState.getItems().size());
-    tableViewState.getItems().forEach(stateTableCell -> {
-      if (!stateTableCell.ignoreVarProperty().get()) {
-        predicateStringSet.add(stateTableCell.getVarName() + "=" + stateTableCell.getInputState());
-      }
-    });
-    final String predicate = Joiner.on(" & ").join(predicateStringSet);
-    return new ClassicalB(predicate, FormulaExpand.EXPAND);
-  }
 }
\ No newline at end of file
@@ -21,6 +21,8 @@ import javafx.scene.layout.StackPane;
 import org.fxmisc.easybind.EasyBind;
 
 import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
 import java.util.ResourceBundle;
 
 import javax.annotation.Nullable;
@@ -151,6 +153,13 @@ public class TransitionNode extends BasicNode implements Initializable {
     validateOutputState();
   }
 
+  /**
+   * Return the input and output state node of this transition.
+   */
+  public List<StateNode> getStateNodes() {
+    return Arrays.asList(inputStateNode, outputStateNode);
+  }
+
   private void validateInputState() {
     inputStateNode.validateState();
   }
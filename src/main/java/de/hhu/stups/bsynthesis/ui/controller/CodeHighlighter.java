@@ -0,0 +1,212 @@
+package de.hhu.stups.bsynthesis.ui.controller;
+
+import javafx.application.Platform;
+
+import org.fxmisc.richtext.CodeArea;
+import org.fxmisc.richtext.model.PlainTextChange;
+import org.fxmisc.richtext.model.StyleSpans;
+import org.fxmisc.richtext.model.StyleSpansBuilder;
+import org.fxmisc.richtext.model.TwoDimensional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Incremental syntax highlighting of a {@link CodeArea}. Only the paragraphs affected by an edit
+ * are tokenized again on a background executor, a job that is outdated by a further edit is
+ * cancelled. Since block comments might span several paragraphs, we store whether each paragraph
+ * starts within a block comment and continue with the following paragraphs as long as this state
+ * changes.
+ */
+final class CodeHighlighter {
+
+  private static final String[] KEYWORDS = new String[] {
+      "MACHINE", "ABSTRACT_VARIABLES", "VARIABLES", "INVARIANT", "INITIALISATION", "BEGIN", "END",
+      "OPERATIONS", "PROPERTIES", "SETS", "LET", "ANY", "VAR", "SEES", "PRE", "THEN", "END;",
+      "CONSTANTS", "DEFINITIONS", "IF", "ELSE"};
+  private static final String KEYWORD_PATTERN = "\\b(" + String.join("|", KEYWORDS) + ")\\b";
+  private static final Pattern PATTERN = Pattern.compile("(?<KEYWORD>" + KEYWORD_PATTERN + ")"
+      + "|(?<COMMENT>//.*)|(?<BLOCKCOMMENT>/\\*)", Pattern.CASE_INSENSITIVE);
+  private static final String BLOCK_COMMENT_END = "*/";
+  private static final Duration HIGHLIGHTING_DELAY = Duration.ofMillis(50);
+  private static final int MAXIMUM_PARAGRAPHS_PER_JOB = 500;
+
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private final CodeArea codeArea;
+  private final ExecutorService executorService;
+  /**
+   * Whether the paragraph with the corresponding index starts within a block comment.
+   */
+  private final List<Boolean> blockCommentStates;
+
+  private int dirtyFrom = -1;
+  private int dirtyTo = -1;
+  private int version;
+  private Future<?> highlightingJob;
+
+  CodeHighlighter(final CodeArea codeArea, final ExecutorService executorService) {
+    this.codeArea = codeArea;
+    this.executorService = executorService;
+    blockCommentStates = new ArrayList<>(Collections.singletonList(false));
+    codeArea.plainTextChanges()
+        .filter(change -> !change.isIdentity())
+        .hook(this::markChangedParagraphs)
+        .successionEnds(HIGHLIGHTING_DELAY)
+        .subscribe(change -> startHighlightingJob());
+  }
+
+  /**
+   * Update the paragraph states according to the inserted and removed lines and mark the edited
+   * paragraphs to be highlighted. Outdated jobs are cancelled.
+   */
+  private void markChangedParagraphs(final PlainTextChange change) {
+    final int paragraph =
+        codeArea.offsetToPosition(change.getPosition(), TwoDimensional.Bias.Forward).getMajor();
+    final int removedLines = countLines(change.getRemoved());
+    final int insertedLines = countLines(change.getInserted());
+    final int firstChangedState = Math.min(paragraph + 1, blockCommentStates.size());
+    blockCommentStates.subList(firstChangedState,
+        Math.min(firstChangedState + removedLines, blockCommentStates.size())).clear();
+    blockCommentStates.addAll(firstChangedState,
+        Collections.nCopies(insertedLines, blockCommentStates.get(paragraph)));
+    if (dirtyFrom < 0) {
+      dirtyFrom = paragraph;
+      dirtyTo = paragraph + insertedLines;
+    } else {
+      if (dirtyTo > paragraph) {
+        dirtyTo = Math.max(paragraph, dirtyTo + insertedLines - removedLines);
+      }
+      dirtyFrom = Math.min(dirtyFrom, paragraph);
+      dirtyTo = Math.max(dirtyTo, paragraph + insertedLines);
+    }
+    version++;
+    if (highlightingJob != null) {
+      highlightingJob.cancel(true);
+      highlightingJob = null;
+    }
+  }
+
+  /**
+   * Tokenize the marked paragraphs on the background executor and apply the style spans on the
+   * JavaFX application thread unless the text has changed in the meantime.
+   */
+  private void startHighlightingJob() {
+    if (dirtyFrom < 0) {
+      return;
+    }
+    final int paragraphs = blockCommentStates.size();
+    final int from = Math.min(dirtyFrom, paragraphs - 1);
+    final int to = Math.min(Math.min(dirtyTo, paragraphs - 1), from + MAXIMUM_PARAGRAPHS_PER_JOB);
+    final List<String> texts = new ArrayList<>(to - from + 1);
+    for (int i = from; i <= to; i++) {
+      texts.add(codeArea.getText(i));
+    }
+    final boolean startsInBlockComment = blockCommentStates.get(from);
+    final int jobVersion = version;
+    highlightingJob = executorService.submit(() -> {
+      final List<StyleSpans<Collection<String>>> styleSpans = new ArrayList<>(texts.size());
+      final boolean[] endsInBlockComment = new boolean[texts.size()];
+      boolean inBlockComment = startsInBlockComment;
+      for (int i = 0; i < texts.size(); i++) {
+        if (Thread.currentThread().isInterrupted()) {
+          return;
+        }
+        inBlockComment = tokenize(texts.get(i), inBlockComment, styleSpans);
+        endsInBlockComment[i] = inBlockComment;
+      }
+      Platform.runLater(() -> applyHighlighting(jobVersion, from, styleSpans, endsInBlockComment));
+    });
+  }
+
+  private void applyHighlighting(final int jobVersion,
+                                 final int from,
+                                 final List<StyleSpans<Collection<String>>> styleSpans,
+                                 final boolean[] endsInBlockComment) {
+    if (jobVersion != version) {
+      // the text has changed, the marked paragraphs are highlighted by the next job
+      return;
+    }
+    highlightingJob = null;
+    final int to = from + styleSpans.size() - 1;
+    for (int i = 0; i < styleSpans.size(); i++) {
+      codeArea.setStyleSpans(from + i, 0, styleSpans.get(i));
+    }
+    final int next = to + 1;
+    final boolean nextStateChanged = next < blockCommentStates.size()
+        && blockCommentStates.get(next) != endsInBlockComment[styleSpans.size() - 1];
+    for (int i = 0; i < styleSpans.size() && from + i + 1 < blockCommentStates.size(); i++) {
+      blockCommentStates.set(from + i + 1, endsInBlockComment[i]);
+    }
+    if (nextStateChanged || next <= dirtyTo) {
+      // a block comment has been opened or closed, or the job has been limited in size
+      dirtyFrom = next;
+      dirtyTo = Math.max(dirtyTo, next);
+      logger.debug("Continue highlighting at paragraph {}.", next);
+      startHighlightingJob();
+      return;
+    }
+    dirtyFrom = -1;
+    dirtyTo = -1;
+  }
+
+  /**
+   * Add the style spans of the given paragraph and return whether the paragraph ends within a
+   * block comment.
+   */
+  private static boolean tokenize(final String text,
+                                  final boolean startsInBlockComment,
+                                  final List<StyleSpans<Collection<String>>> styleSpans) {
+    final StyleSpansBuilder<Collection<String>> spansBuilder = new StyleSpansBuilder<>();
+    int position = 0;
+    if (startsInBlockComment) {
+      final int commentEnd = text.indexOf(BLOCK_COMMENT_END);
+      if (commentEnd < 0) {
+        spansBuilder.add(Collections.singleton("comment"), text.length());
+        styleSpans.add(spansBuilder.create());
+        return true;
+      }
+      position = commentEnd + BLOCK_COMMENT_END.length();
+      spansBuilder.add(Collections.singleton("comment"), position);
+    }
+    final Matcher matcher = PATTERN.matcher(text);
+    while (position < text.length() && matcher.find(position)) {
+      spansBuilder.add(Collections.emptyList(), matcher.start() - position);
+      if (matcher.group("BLOCKCOMMENT") != null) {
+        final int commentEnd = text.indexOf(BLOCK_COMMENT_END, matcher.end());
+        if (commentEnd < 0) {
+          spansBuilder.add(Collections.singleton("comment"), text.length() - matcher.start());
+          styleSpans.add(spansBuilder.create());
+          return true;
+        }
+        position = commentEnd + BLOCK_COMMENT_END.length();
+        spansBuilder.add(Collections.singleton("comment"), position - matcher.start());
+        continue;
+      }
+      spansBuilder.add(Collections.singleton(matcher.group("KEYWORD") != null
+          ? "keyword" : "comment"), matcher.end() - matcher.start());
+      position = matcher.end();
+    }
+    spansBuilder.add(Collections.emptyList(), text.length() - position);
+    styleSpans.add(spansBuilder.create());
+    return false;
+  }
+
+  private static int countLines(final String text) {
+    int lines = 0;
+    for (int i = 0; i < text.length(); i++) {
+      if (text.charAt(i) == '\n') {
+        lines++;
+      }
+    }
+    return lines;
+  }
+}
@@ -3,6 +3,7 @@ package de.hhu.stups.bsynthesis.ui.controller;
 import com.google.inject.Inject;
 
 import de.hhu.stups.bsynthesis.services.DaemonThread;
+import de.hhu.stups.bsynthesis.services.ModelCheckingService;
 import de.hhu.stups.bsynthesis.services.ProBApiService;
 import de.hhu.stups.bsynthesis.services.ServiceDelegator;
 import de.hhu.stups.bsynthesis.services.SynthesisContextService;
@@ -10,8 +11,10 @@ import de.hhu.stups.bsynthesis.services.UiService;
 import de.hhu.stups.bsynthesis.ui.ContextEvent;
 import de.hhu.stups.bsynthesis.ui.ContextEventType;
 import de.hhu.stups.bsynthesis.ui.Loader;
+import de.hhu.stups.bsynthesis.ui.SynthesisType;
 
 import de.prob.statespace.StateSpace;
+import de.prob.statespace.Trace;
 import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
@@ -31,11 +34,10 @@ import org.fxmisc.easybind.EasyBind;
 import org.fxmisc.flowless.VirtualizedScrollPane;
 import org.fxmisc.richtext.CodeArea;
 import org.fxmisc.richtext.LineNumberFactory;
-import org.fxmisc.richtext.model.StyleSpans;
-import org.fxmisc.richtext.model.StyleSpansBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -47,32 +49,21 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 
 import java.nio.file.StandardCopyOption;
-import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Stream;
 
 /**
  * A simple text area to display the current machine code.
  */
 public final class CodeView extends VBox {
 
-  private static final String[] KEYWORDS = new String[] {
-      "MACHINE", "ABSTRACT_VARIABLES", "VARIABLES", "INVARIANT", "INITIALISATION", "BEGIN", "END",
-      "OPERATIONS", "PROPERTIES", "SETS", "LET", "ANY", "VAR", "SEES", "PRE", "THEN", "END;",
-      "CONSTANTS", "DEFINITIONS", "IF", "ELSE"};
-  private static final String KEYWORD_PATTERN = "\\b(" + String.join("|", KEYWORDS) + ")\\b";
-  private static final String COMMENT_PATTERN = "//[^\n]*" + "|" + "/\\*(.|\\R)*?\\*/";
-  private static final Pattern PATTERN = Pattern.compile("(?<KEYWORD>" + KEYWORD_PATTERN + ")"
-      + "|(?<COMMENT>" + COMMENT_PATTERN + ")", Pattern.CASE_INSENSITIVE);
-
   private final ExecutorService executorService = Executors.newSingleThreadExecutor();
   private final Logger logger = LoggerFactory.getLogger(getClass());
   private final SynthesisContextService synthesisContextService;
   private final ProBApiService proBApiService;
+  private final ModelCheckingService modelCheckingService;
   private final UiService uiService;
   private final BooleanProperty userEvaluatedSolutionProperty;
 
@@ -105,6 +96,7 @@ public final class CodeView extends VBox {
                   final ServiceDelegator serviceDelegator) {
     this.synthesisContextService = serviceDelegator.synthesisContextService();
     this.proBApiService = serviceDelegator.proBApiService();
+    this.modelCheckingService = serviceDelegator.modelCheckingService();
     this.uiService = serviceDelegator.uiService();
 
     // Unfortunately, VirtualizedScrollPane doesn't support instantiation from fxml..
@@ -189,15 +181,7 @@ public final class CodeView extends VBox {
   private void initializeCodeArea(final CodeArea codeArea) {
     codeArea.setEditable(true);
     codeArea.setParagraphGraphicFactory(LineNumberFactory.get(codeArea));
-    codeArea.richChanges()
-        .filter(ch -> !ch.getInserted().equals(ch.getRemoved()))
-        .subscribe(change -> {
-          if (!codeArea.getText().isEmpty() && (!change.getInserted().getText().isEmpty()
-              || !change.getRemoved().getText().isEmpty())) {
-            Platform.runLater(() ->
-                codeArea.setStyleSpans(0, computeHighlighting(codeArea.getText())));
-          }
-        });
+    new CodeHighlighter(codeArea, executorService);
     codeArea.prefHeightProperty().bind(heightProperty());
   }
 
@@ -235,31 +219,6 @@ public final class CodeView extends VBox {
     synthesisContextService.contextEventStream().push(contextEvent);
   }
 
-  private StyleSpans<Collection<String>> computeHighlighting(final String text) {
-    final Matcher matcher = PATTERN.matcher(text);
-    int lastKwEnd = 0;
-    final StyleSpansBuilder<Collection<String>> spansBuilder
-        = new StyleSpansBuilder<>();
-    while (matcher.find()) {
-      final String styleClass = getHighlightingStyleClass(matcher);
-      spansBuilder.add(Collections.emptyList(), matcher.start() - lastKwEnd);
-      spansBuilder.add(Collections.singleton(styleClass), matcher.end() - matcher.start());
-      lastKwEnd = matcher.end();
-    }
-    spansBuilder.add(Collections.emptyList(), text.length() - lastKwEnd);
-    return spansBuilder.create();
-  }
-
-  private String getHighlightingStyleClass(final Matcher matcher) {
-    if (matcher.group("KEYWORD") != null) {
-      return "keyword";
-    }
-    if (matcher.group("COMMENT") != null) {
-      return "comment";
-    }
-    return "";
-  }
-
   /**
    * Show the modified machine code containing the synthesized changes.
    */
@@ -280,17 +239,26 @@ public final class CodeView extends VBox {
 
   /**
    * Copy the solution from {@link #codeAreaSynthesized} to {@link #codeArea} and save the machine
-   * code.
+   * code. The reloaded machine is {@link ModelCheckingService#checkIncrementally checked
+   * incrementally} focusing on the modified operation.
    */
   @FXML
   @SuppressWarnings("unused")
   public void applySolution() {
+    final String modifiedOperation = synthesisContextService.getCurrentOperation();
+    final List<String> modifiedOperations =
+        SynthesisType.INVARIANT.equals(synthesisContextService.getSynthesisType())
+            || modifiedOperation == null
+            ? Collections.emptyList() : Collections.singletonList(modifiedOperation);
+    // the context is reset below, thus, keep the error trace for the reloaded machine
+    final Trace errorTrace = modelCheckingService.errorTraceProperty().get();
     codeArea.setEditable(true);
     userEvaluatedSolutionProperty.set(true);
     splitPaneCodeAreas.getItems().remove(scrollPaneCodeAreaSynthesized);
     codeArea.clear();
     Platform.runLater(() -> {
       codeArea.appendText(codeAreaSynthesized.getText());
+      modelCheckingService.prepareIncrementalCheck(errorTrace, modifiedOperations);
       saveMachineCode();
     });
     synthesisContextService.contextEventStream()
@@ -316,7 +284,8 @@ public final class CodeView extends VBox {
   }
 
   /**
-   * Save the machine and synchronize the statespaces provided by {@link ProBApiService}.
+   * Save the machine and synchronize the statespaces provided by {@link ProBApiService}. A
+   * prepared incremental check is cancelled if the machine cannot be loaded.
    */
   private void saveMachineCode() {
     final StateSpace stateSpace = synthesisContextService.getStateSpace();
@@ -324,7 +293,9 @@ public final class CodeView extends VBox {
     final String destination = modelFile.getPath();
     saveMachineCode(destination);
     // reload machine
-    proBApiService.loadMachine(modelFile);
+    if (proBApiService.loadMachine(modelFile) == null) {
+      modelCheckingService.cancelIncrementalCheck();
+    }
   }
 
   private void saveMachineCode(final String destination) {
@@ -363,6 +334,10 @@ public final class CodeView extends VBox {
     uiService.codeHasChangedProperty().set(false);
   }
 
+  /**
+   * Read the machine file on the {@link #executorService} and install its content using a single
+   * replacement so that the code is highlighted only once.
+   */
   private void loadMachineCode() {
     codeArea.clear();
     // TODO: maybe use full_b_machine/1 instead of reading from file?
@@ -370,13 +345,27 @@ public final class CodeView extends VBox {
     if (stateSpace == null || stateSpace.getModel().getModelFile() == null) {
       return;
     }
-    try (final Stream<String> stream =
-             Files.lines(Paths.get(stateSpace.getModel().getModelFile().getPath()))) {
-      stream.forEach(line -> Platform.runLater(() -> codeArea.appendText(line + "\n")));
-    } catch (final IOException exception) {
-      logger.error("Error loading machine code", exception);
-    }
-    uiService.codeHasChangedProperty().set(false);
+    final Path modelPath = Paths.get(stateSpace.getModel().getModelFile().getPath());
+    executorService.execute(() -> {
+      final long startTime = System.currentTimeMillis();
+      final StringBuilder machineCode = new StringBuilder();
+      try (final BufferedReader reader =
+               Files.newBufferedReader(modelPath, StandardCharsets.UTF_8)) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          machineCode.append(line).append('\n');
+        }
+      } catch (final IOException exception) {
+        logger.error("Error loading machine code", exception);
+        return;
+      }
+      Platform.runLater(() -> {
+        codeArea.replaceText(machineCode.toString());
+        uiService.codeHasChangedProperty().set(false);
+        logger.info("Loaded machine code of {} characters in {} ms.", machineCode.length(),
+            System.currentTimeMillis() - startTime);
+      });
+    });
   }
 
   /**
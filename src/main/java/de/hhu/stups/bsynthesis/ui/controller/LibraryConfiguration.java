@@ -121,6 +121,9 @@ public class LibraryConfiguration extends GridPane implements Initializable {
   private CheckBox cbSingleThread;
   @FXML
   @SuppressWarnings("unused")
+  private CheckBox cbMinimizeExamples;
+  @FXML
+  @SuppressWarnings("unused")
   private Button btIncreaseSelectedComponentAmount;
   @FXML
   @SuppressWarnings("unused")
@@ -158,6 +161,8 @@ public class LibraryConfiguration extends GridPane implements Initializable {
         selectedLibraryComponentsProperty.get().useDefaultLibraryProperty());
     synthesisContextService.useSingleThreadProperty().bindBidirectional(
         cbSingleThread.selectedProperty());
+    cbMinimizeExamples.selectedProperty().bindBidirectional(
+        synthesisContextService.minimizeExamplesProperty());
     synthesisContextService.selectedLibraryComponentsProperty()
         .bind(selectedLibraryComponentsProperty);
     synthesisContextService.useDefaultLibraryProperty()
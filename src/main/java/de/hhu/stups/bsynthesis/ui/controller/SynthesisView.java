@@ -93,17 +93,20 @@ public class SynthesisView extends ScrollPane implements Initializable {
 
     EasyBind.subscribe(synthesisInfoBox.visibleProperty(), visible -> updateInfoBoxPosition());
     EasyBind.subscribe(hvalueProperty(), number -> {
+      updateValidationPaneViewport();
       updateInfoBoxPosition();
       updateProgressIndicatorPosition(modelCheckingIndicator);
       updateProgressIndicatorPosition(synthesisProgressIndicator);
     });
     EasyBind.subscribe(vvalueProperty(), number -> {
+      updateValidationPaneViewport();
       updateInfoBoxPosition();
       updateProgressIndicatorPosition(modelCheckingIndicator);
       updateProgressIndicatorPosition(synthesisProgressIndicator);
     });
     EasyBind.subscribe(viewportBoundsProperty(), bounds -> {
       contentAnchorPane.setMinSize(bounds.getWidth(), bounds.getHeight());
+      updateValidationPaneViewport();
       updateInfoBoxPosition();
       updateProgressIndicatorPosition(modelCheckingIndicator);
       updateProgressIndicatorPosition(synthesisProgressIndicator);
@@ -218,6 +221,7 @@ public class SynthesisView extends ScrollPane implements Initializable {
   private void initializeScaleEvents() {
     zoomGroup.scaleXProperty().bind(scaleFactorProperty);
     zoomGroup.scaleYProperty().bind(scaleFactorProperty);
+    EasyBind.subscribe(scaleFactorProperty, scaleFactor -> updateValidationPaneViewport());
     addEventFilter(ScrollEvent.ANY, event -> {
       if (!event.isControlDown()) {
         return;
@@ -234,6 +238,15 @@ public class SynthesisView extends ScrollPane implements Initializable {
     });
   }
 
+  /**
+   * Pass the visible area of the {@link #validationPane} in its local coordinates. The area is
+   * computed after the scroll pane has moved and scaled its content.
+   */
+  private void updateValidationPaneViewport() {
+    Platform.runLater(() ->
+        validationPane.setViewport(validationPane.sceneToLocal(localToScene(getLayoutBounds()))));
+  }
+
   /**
    * Update the position of {@link #synthesisInfoBox} according to the scroll offset.
    */
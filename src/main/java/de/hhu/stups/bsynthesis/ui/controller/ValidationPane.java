@@ -12,8 +12,10 @@ import de.hhu.stups.bsynthesis.services.SynthesisContextService;
 import de.hhu.stups.bsynthesis.services.UiService;
 import de.hhu.stups.bsynthesis.services.ValidationPaneEvent;
 import de.hhu.stups.bsynthesis.ui.ContextEventType;
+import de.hhu.stups.bsynthesis.ui.FrameBatchedExecutor;
 import de.hhu.stups.bsynthesis.ui.Loader;
 import de.hhu.stups.bsynthesis.ui.SynthesisType;
+import de.hhu.stups.bsynthesis.ui.components.NodeSpatialIndex;
 import de.hhu.stups.bsynthesis.ui.components.NodesFromTracePositionGenerator;
 import de.hhu.stups.bsynthesis.ui.components.ValidationContextMenu;
 import de.hhu.stups.bsynthesis.ui.components.factories.StateNodeFactory;
@@ -32,12 +34,15 @@ import javafx.application.Platform;
 import javafx.beans.property.ListProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleListProperty;
+import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableSet;
 import javafx.concurrent.Task;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
 import javafx.geometry.Point2D;
 import javafx.scene.Node;
 import javafx.scene.input.MouseButton;
@@ -47,20 +52,33 @@ import javafx.scene.paint.Color;
 import javafx.scene.shape.Line;
 import javafx.scene.shape.Rectangle;
 import org.fxmisc.easybind.EasyBind;
+import org.reactfx.util.FxTimer;
+import org.reactfx.util.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 /**
  * The validation pane which is graphically split in two areas where the left side contains valid
  * example nodes (positive) and the right side invalid ones (negative).
+ *
+ * <p>Only the nodes within the {@link #setViewport(Bounds) viewport} are part of the scene graph.
+ * Nodes outside of the viewport (extended by the margin given by the system property
+ * bsynthesis.ui.viewportMargin) are replaced by lightweight placeholders and added to the pane
+ * again once they are scrolled into view.</p>
  */
 @Singleton
 public class ValidationPane extends Pane implements Initializable {
@@ -69,14 +87,29 @@ public class ValidationPane extends Pane implements Initializable {
   public static final double HEIGHT = 1800.0;
 
   private static final int MODEL_CHECKING_STATE_AMOUNT = 5;
+  private static final double DEFAULT_VIEWPORT_MARGIN = 200.0;
+  private static final double NODE_GAP = 10.0;
+  private static final java.time.Duration USER_VALIDATION_DELAY = java.time.Duration.ofMillis(250);
 
   private static final String VALID_COLOR = "#C2FFC0";
   private static final String INVALID_COLOR = "#FFC0C0";
+  private static final String PLACEHOLDER_COLOR = "#D8D8D8";
 
   private static final ExecutorService executorService = Executors.newSingleThreadExecutor();
 
   private final Logger logger = LoggerFactory.getLogger(getClass());
   private final ListProperty<BasicNode> nodes;
+  private final Map<String, Set<BasicNode>> nodesByStateId;
+  private final FrameBatchedExecutor frameBatchedExecutor;
+  private final Map<BasicNode, String> indexKeysByNode;
+  private final Map<BasicNode, ChangeListener<NodeState>> indexListenersByNode;
+  private final Map<BasicNode, Rectangle> placeholdersByNode;
+  private final NodeSpatialIndex nodeSpatialIndex;
+  private final Set<BasicNode> userValidationNodes;
+  private final Timer userValidationTimer;
+  private final Map<BasicNode, ChangeListener<Object>> boundsListenersByNode;
+  private final AtomicBoolean viewportUpdateScheduled;
+  private final double viewportMargin;
   private final SimpleDoubleProperty scaleFactorProperty;
   private final StateNodeFactory stateNodeFactory;
   private final ValidationContextMenu validationContextMenu;
@@ -85,6 +118,7 @@ public class ValidationPane extends Pane implements Initializable {
   private final UiService uiService;
 
   private BasicNode dragNode;
+  private Bounds viewport;
   private double offsetX;
   private double offsetY;
 
@@ -104,6 +138,20 @@ public class ValidationPane extends Pane implements Initializable {
     scaleFactorProperty = new SimpleDoubleProperty(1.0);
     validationContextMenu = validationContextMenuFactory.create(SynthesisType.NONE);
     nodes = new SimpleListProperty<>(FXCollections.observableArrayList());
+    nodesByStateId = new ConcurrentHashMap<>();
+    frameBatchedExecutor = new FrameBatchedExecutor();
+    indexKeysByNode = new ConcurrentHashMap<>();
+    indexListenersByNode = new ConcurrentHashMap<>();
+    placeholdersByNode = new ConcurrentHashMap<>();
+    nodeSpatialIndex = new NodeSpatialIndex();
+    userValidationNodes = ConcurrentHashMap.newKeySet();
+    // update the user validation state of moved nodes after a small delay to prevent
+    // performance issues, all nodes moved in the meantime are updated at once
+    userValidationTimer = FxTimer.create(USER_VALIDATION_DELAY, this::updateUserValidation);
+    boundsListenersByNode = new ConcurrentHashMap<>();
+    viewportUpdateScheduled = new AtomicBoolean();
+    viewportMargin = Double.parseDouble(System.getProperty("bsynthesis.ui.viewportMargin",
+        String.valueOf(DEFAULT_VIEWPORT_MARGIN)));
     Loader.loadFxml(loader, this, "validation_pane.fxml");
   }
 
@@ -180,15 +228,8 @@ public class ValidationPane extends Pane implements Initializable {
    * Prevent {@link BasicNode} to leave the validation pane.
    */
   private void adjustPositionIfNecessary(final BasicNode basicNode) {
-    final boolean isExpanded = basicNode.isExpandedProperty().get();
-    final double currentWidth;
-    final double currentHeight;
-    if (basicNode instanceof StateNode) {
-      currentWidth = isExpanded ? StateNode.EXPANDED_WIDTH : StateNode.WIDTH;
-    } else {
-      currentWidth = (isExpanded ? StateNode.EXPANDED_WIDTH : StateNode.WIDTH) * 2 + 100;
-    }
-    currentHeight = isExpanded ? StateNode.EXPANDED_HEIGHT : StateNode.HEIGHT;
+    final double currentWidth = getNodeWidth(basicNode);
+    final double currentHeight = getNodeHeight(basicNode);
     if (!isValidXPosition(basicNode.getXPosition(), currentWidth)) {
       if (basicNode.getXPosition() < 0) {
         basicNode.setXPosition(5.0);
@@ -205,21 +246,276 @@ public class ValidationPane extends Pane implements Initializable {
     }
   }
 
+  /**
+   * The width of a node when it is fully expanded or shrunk, which does not require the node to be
+   * laid out.
+   */
+  private double getNodeWidth(final BasicNode basicNode) {
+    final double stateNodeWidth =
+        basicNode.isExpandedProperty().get() ? StateNode.EXPANDED_WIDTH : StateNode.WIDTH;
+    return basicNode instanceof StateNode ? stateNodeWidth : stateNodeWidth * 2 + 100;
+  }
+
+  private double getNodeHeight(final BasicNode basicNode) {
+    return basicNode.isExpandedProperty().get() ? StateNode.EXPANDED_HEIGHT : StateNode.HEIGHT;
+  }
+
   private void handleNodeChanges() {
     nodes.addListener((ListChangeListener<BasicNode>) change -> {
       /*  add nodes to the pane when added to {@link #nodes} */
       while (change.next()) {
+        change.getRemoved().forEach(this::removeFromIndex);
+        change.getAddedSubList().forEach(this::addToIndex);
         if (change.wasAdded()) {
-          change.getAddedSubList().forEach(node -> Platform.runLater(() ->
-              this.getChildren().add(node)));
+          change.getAddedSubList().forEach(node -> frameBatchedExecutor.execute(() -> {
+            placeNode(node);
+            showNode(node);
+            addBoundsListener(node);
+          }));
         } else if (change.wasRemoved()) {
-          change.getRemoved().forEach(node -> Platform.runLater(() ->
-              removeNode(node)));
+          final Set<BasicNode> removedNodes = new HashSet<>(change.getRemoved());
+          frameBatchedExecutor.execute(() -> removeNodes(removedNodes));
         }
       }
     });
   }
 
+  /**
+   * Set the visible area of the pane in its local coordinates. The nodes are updated once per
+   * frame no matter how often the viewport changes in between, e.g., when scrolling.
+   */
+  public void setViewport(final Bounds viewport) {
+    this.viewport = viewport == null ? null : new BoundingBox(
+        viewport.getMinX() - viewportMargin, viewport.getMinY() - viewportMargin,
+        viewport.getWidth() + 2 * viewportMargin, viewport.getHeight() + 2 * viewportMargin);
+    if (viewportUpdateScheduled.compareAndSet(false, true)) {
+      frameBatchedExecutor.execute(() -> {
+        viewportUpdateScheduled.set(false);
+        nodes.forEach(this::updateNodeVisibility);
+      });
+    }
+  }
+
+  private boolean isInViewport(final BasicNode basicNode) {
+    return viewport == null || viewport.intersects(basicNode.getXPosition(),
+        basicNode.getYPosition(), getNodeWidth(basicNode), getNodeHeight(basicNode));
+  }
+
+  private Bounds getNodeBounds(final BasicNode basicNode) {
+    return new BoundingBox(basicNode.getXPosition(), basicNode.getYPosition(),
+        getNodeWidth(basicNode), getNodeHeight(basicNode));
+  }
+
+  /**
+   * Add a node to the {@link #nodeSpatialIndex} and move it to the nearest free position on its
+   * side of the pane if it overlaps other nodes.
+   */
+  private void placeNode(final BasicNode basicNode) {
+    moveToFreePositionIfNecessary(basicNode);
+    nodeSpatialIndex.put(basicNode, getNodeBounds(basicNode));
+  }
+
+  private void moveToFreePositionIfNecessary(final BasicNode basicNode) {
+    if (nodeSpatialIndex.isFree(getNodeBounds(basicNode), basicNode)) {
+      return;
+    }
+    final double halfWidth = WIDTH / 2;
+    final Bounds side = getExampleValidation(basicNode)
+        ? new BoundingBox(5.0, 5.0, halfWidth - 10.0, HEIGHT - 10.0)
+        : new BoundingBox(halfWidth + 5.0, 5.0, halfWidth - 10.0, HEIGHT - 10.0);
+    final Point2D freePosition = nodeSpatialIndex.getFreePosition(basicNode,
+        new Point2D(basicNode.getXPosition(), basicNode.getYPosition()),
+        getNodeWidth(basicNode), getNodeHeight(basicNode), side, NODE_GAP);
+    if (freePosition != null) {
+      basicNode.setXPosition(freePosition.getX());
+      basicNode.setYPosition(freePosition.getY());
+      scheduleUserValidation(basicNode);
+    }
+  }
+
+  /**
+   * Add the given node to the pane if it is in the viewport, otherwise add a placeholder.
+   */
+  private void showNode(final BasicNode basicNode) {
+    if (isInViewport(basicNode)) {
+      this.getChildren().add(basicNode);
+      return;
+    }
+    addPlaceholder(basicNode);
+  }
+
+  /**
+   * Replace a node that left the viewport by a placeholder or a placeholder that entered the
+   * viewport by its node. Nodes that have not been shown yet or that are dragged are ignored.
+   */
+  private void updateNodeVisibility(final BasicNode basicNode) {
+    final boolean isShown = basicNode.getParent() == this;
+    if (!isShown && !placeholdersByNode.containsKey(basicNode) || basicNode == dragNode) {
+      return;
+    }
+    final boolean isInViewport = isInViewport(basicNode);
+    if (isInViewport && !isShown) {
+      this.getChildren().remove(removePlaceholder(basicNode));
+      this.getChildren().add(basicNode);
+    } else if (!isInViewport && isShown) {
+      this.getChildren().remove(basicNode);
+      addPlaceholder(basicNode);
+    }
+  }
+
+  private void addPlaceholder(final BasicNode basicNode) {
+    final Rectangle placeholder =
+        new Rectangle(getNodeWidth(basicNode), getNodeHeight(basicNode));
+    placeholder.setFill(Color.web(PLACEHOLDER_COLOR));
+    placeholder.setMouseTransparent(true);
+    placeholder.layoutXProperty().bind(basicNode.layoutXProperty());
+    placeholder.layoutYProperty().bind(basicNode.layoutYProperty());
+    placeholdersByNode.put(basicNode, placeholder);
+    this.getChildren().add(placeholder);
+  }
+
+  /**
+   * Unbind and return the placeholder of the given node, or null. The placeholder still needs to be
+   * removed from the pane.
+   */
+  private Rectangle removePlaceholder(final BasicNode basicNode) {
+    final Rectangle placeholder = placeholdersByNode.remove(basicNode);
+    if (placeholder != null) {
+      placeholder.layoutXProperty().unbind();
+      placeholder.layoutYProperty().unbind();
+    }
+    return placeholder;
+  }
+
+  /**
+   * Nodes might be moved without scrolling, e.g., when adjusting their position, so that the
+   * {@link #nodeSpatialIndex} and the visibility of a node are updated when its bounds change.
+   */
+  private void addBoundsListener(final BasicNode basicNode) {
+    final ChangeListener<Object> boundsListener = (observable, oldValue, newValue) -> {
+      if (placeholdersByNode.containsKey(basicNode) || basicNode.getParent() == this) {
+        nodeSpatialIndex.put(basicNode, getNodeBounds(basicNode));
+        updateNodeVisibility(basicNode);
+        scheduleUserValidation(basicNode);
+      }
+    };
+    if (boundsListenersByNode.putIfAbsent(basicNode, boundsListener) == null) {
+      basicNode.layoutXProperty().addListener(boundsListener);
+      basicNode.layoutYProperty().addListener(boundsListener);
+      basicNode.isExpandedProperty().addListener(boundsListener);
+    }
+  }
+
+  private void removeBoundsListener(final BasicNode basicNode) {
+    final ChangeListener<Object> boundsListener = boundsListenersByNode.remove(basicNode);
+    if (boundsListener != null) {
+      basicNode.layoutXProperty().removeListener(boundsListener);
+      basicNode.layoutYProperty().removeListener(boundsListener);
+      basicNode.isExpandedProperty().removeListener(boundsListener);
+    }
+  }
+
+  /**
+   * Return the key of a node in {@link #nodesByStateId}, i.e., the state id of a {@link StateNode}
+   * or the pair of input and output state id of a {@link TransitionNode}, or null if the node's
+   * states are not known.
+   */
+  private String getIndexKey(final BasicNode basicNode) {
+    if (basicNode instanceof StateNode) {
+      final State state = ((StateNode) basicNode).getState();
+      return state == null ? null : state.getId();
+    }
+    if (basicNode instanceof TransitionNode) {
+      final State inputState = ((TransitionNode) basicNode).getInputState();
+      final State outputState = ((TransitionNode) basicNode).getOutputState();
+      return inputState == null || outputState == null
+          ? null : inputState.getId() + "->" + outputState.getId();
+    }
+    return null;
+  }
+
+  /**
+   * Index the given node by its {@link #getIndexKey(BasicNode) key}. The node's states might
+   * change when validating a tentative node which is followed by an update of its node state, so
+   * that the node is indexed again in this case.
+   */
+  private void addToIndex(final BasicNode basicNode) {
+    final ChangeListener<NodeState> indexListener = (observable, oldValue, newValue) -> {
+      unindex(basicNode);
+      index(basicNode);
+    };
+    if (indexListenersByNode.putIfAbsent(basicNode, indexListener) == null) {
+      basicNode.nodeStateProperty().addListener(indexListener);
+    }
+    index(basicNode);
+  }
+
+  private void removeFromIndex(final BasicNode basicNode) {
+    final ChangeListener<NodeState> indexListener = indexListenersByNode.remove(basicNode);
+    if (indexListener != null) {
+      basicNode.nodeStateProperty().removeListener(indexListener);
+    }
+    unindex(basicNode);
+  }
+
+  private void index(final BasicNode basicNode) {
+    final String key = getIndexKey(basicNode);
+    if (key != null) {
+      indexKeysByNode.put(basicNode, key);
+      nodesByStateId.computeIfAbsent(key, id -> ConcurrentHashMap.newKeySet()).add(basicNode);
+    }
+  }
+
+  private void unindex(final BasicNode basicNode) {
+    final String key = indexKeysByNode.remove(basicNode);
+    if (key != null) {
+      nodesByStateId.computeIfPresent(key, (id, indexedNodes) -> {
+        indexedNodes.remove(basicNode);
+        return indexedNodes.isEmpty() ? null : indexedNodes;
+      });
+    }
+  }
+
+  /**
+   * Return a node from {@link #nodesByStateId} of the given type with the same key as the given
+   * node other than the node itself, or null.
+   */
+  private <T extends BasicNode> T getEquivalentNode(final T basicNode, final Class<T> nodeType) {
+    final String key = getIndexKey(basicNode);
+    final Set<BasicNode> indexedNodes = key == null ? null : nodesByStateId.get(key);
+    if (indexedNodes == null) {
+      return null;
+    }
+    return indexedNodes.stream()
+        .filter(indexedNode -> nodeType.isInstance(indexedNode) && !basicNode.equals(indexedNode))
+        .map(nodeType::cast).findFirst().orElse(null);
+  }
+
+  /**
+   * Mark the node to update its user validation state with the next tick of the
+   * {@link #userValidationTimer}, which is restarted to wait until the nodes are not moved
+   * anymore.
+   */
+  private void scheduleUserValidation(final BasicNode basicNode) {
+    userValidationNodes.add(basicNode);
+    userValidationTimer.restart();
+  }
+
+  /**
+   * Update the user validation state of all nodes that have been moved since the last tick and
+   * the synthesis type once for all of them.
+   */
+  private void updateUserValidation() {
+    final List<BasicNode> movedNodes = new ArrayList<>(userValidationNodes);
+    userValidationNodes.removeAll(movedNodes);
+    movedNodes.removeIf(basicNode -> !boundsListenersByNode.containsKey(basicNode));
+    movedNodes.forEach(basicNode ->
+        basicNode.userValidationProperty().set(getExampleValidation(basicNode)));
+    movedNodes.stream()
+        .filter(basicNode -> !(basicNode instanceof TransitionNode) && !basicNode.isTentative())
+        .findAny().ifPresent(this::updateSynthesisType);
+  }
+
   /**
    * Set the {@link SynthesisContextService#synthesisTypeProperty()} according to the current ui
    * state of the {@link #getNodes() nodes}.
@@ -253,27 +549,26 @@ public class ValidationPane extends Pane implements Initializable {
   }
 
   /**
-   * Remove a {@link BasicNode} from the pane, delete the node from all ancestors and remove edges
-   * with this node.
+   * Remove the given {@link BasicNode nodes} and their placeholders from the pane at once, delete
+   * the nodes from all ancestors and remove edges with these nodes.
    */
-  @SuppressWarnings("unused")
-  private void removeNode(final BasicNode nodeToRemove) {
-    Platform.runLater(() -> this.getChildren().remove(nodeToRemove));
-    // remove node line connections
-    this.getChildren().forEach(node -> {
-      if (node instanceof NodeLine && (nodeToRemove.equals(((NodeLine) node).getSource())
-          || nodeToRemove.equals(((NodeLine) node).getTarget()))) {
-        Platform.runLater(() -> this.getChildren().remove(node));
-      }
+  private void removeNodes(final Set<BasicNode> nodesToRemove) {
+    final Set<Rectangle> placeholders = new HashSet<>();
+    nodesToRemove.forEach(node -> {
+      removeBoundsListener(node);
+      nodeSpatialIndex.remove(node);
+      userValidationNodes.remove(node);
+      placeholders.add(removePlaceholder(node));
     });
+    this.getChildren().removeIf(node -> nodesToRemove.contains(node) || placeholders.contains(node)
+        || node instanceof NodeLine && (nodesToRemove.contains(((NodeLine) node).getSource())
+        || nodesToRemove.contains(((NodeLine) node).getTarget())));
     // remove ancestors if necessary
-    if (isInstanceOf(nodeToRemove, StateNode.class)) {
+    if (nodesToRemove.stream().anyMatch(node -> isInstanceOf(node, StateNode.class))) {
       nodes.forEach(node -> {
-        final StateNode stateNode = (StateNode) node;
-        if (stateNode.successorProperty().contains(nodeToRemove)) {
-          stateNode.successorProperty().remove(nodeToRemove);
-        } else if (stateNode.predecessorProperty().contains(nodeToRemove)) {
-          stateNode.predecessorProperty().remove(nodeToRemove);
+        if (node instanceof StateNode) {
+          ((StateNode) node).successorProperty().removeAll(nodesToRemove);
+          ((StateNode) node).predecessorProperty().removeAll(nodesToRemove);
         }
       });
     }
@@ -300,6 +595,7 @@ public class ValidationPane extends Pane implements Initializable {
   private boolean preventShowingContextMenu(final MouseEvent event) {
     return !event.getButton().equals(MouseButton.SECONDARY)
         || isInstanceOf(event.getTarget(), BasicNode.class)
+        || nodeSpatialIndex.getNodeAt(event.getX(), event.getY()) != null
         || synthesisContextService.getStateSpace() == null
         || synthesisContextService.synthesisTypeProperty().get().isUndefined();
   }
@@ -322,7 +618,13 @@ public class ValidationPane extends Pane implements Initializable {
       }
     });
 
-    this.setOnMouseReleased(event -> dragNode = null);
+    this.setOnMouseReleased(event -> {
+      final BasicNode droppedNode = dragNode;
+      dragNode = null;
+      if (droppedNode != null) {
+        moveToFreePositionIfNecessary(droppedNode);
+      }
+    });
 
     this.setOnMouseDragged(event -> {
       if (dragNode == null) {
@@ -366,7 +668,9 @@ public class ValidationPane extends Pane implements Initializable {
 
   /**
    * Initialize the nodes from the trace derived by the model checker in case the model is
-   * defective. Determine the machine operation that leads into the erroneous state.
+   * defective. Determine the machine operation that leads into the erroneous state. If the model
+   * checker has collected further counterexamples, their violating states and predecessors are
+   * added as well.
    */
   public void initializeNodesFromTrace() {
     final Trace initialMcTrace = modelCheckingService.errorTraceProperty().get();
@@ -375,10 +679,21 @@ public class ValidationPane extends Pane implements Initializable {
     }
     synthesisContextService.getAnimationSelector().changeCurrentAnimation(initialMcTrace);
     synthesisContextService.stateSpaceProperty().set(initialMcTrace.getStateSpace());
-    boolean invariantViolatingOpIsSet = false;
     final NodesFromTracePositionGenerator nodesFromTraceGenerator =
         new NodesFromTracePositionGenerator();
+    initializeNodesFromErrorTrace(nodesFromTraceGenerator);
+    // the violating operation is known after following the error trace
+    initializeNodesFromFurtherTraces(nodesFromTraceGenerator);
+  }
 
+  /**
+   * Follow the error trace backwards starting with the current trace of the animation selector
+   * and add a node for each state. The operation leading into the first violating state is set as
+   * the current operation.
+   */
+  private void initializeNodesFromErrorTrace(
+      final NodesFromTracePositionGenerator nodesFromTraceGenerator) {
+    boolean invariantViolatingOpIsSet = false;
     for (int i = 0; i < MODEL_CHECKING_STATE_AMOUNT; i++) {
       final Trace trace = synthesisContextService.getAnimationSelector().getCurrentTrace();
       if (SynthesisType.ACTION.equals(synthesisContextService.getSynthesisType())
@@ -414,6 +729,47 @@ public class ValidationPane extends Pane implements Initializable {
     Platform.runLater(this::ignoreNonViolatingVarsIfNotDeadlock);
   }
 
+  /**
+   * Add the violating state of each further counterexample as an invalid node and its
+   * predecessor as a valid node. Only counterexamples whose last transition is the current
+   * operation are considered since the others do not describe the behavior of this operation.
+   */
+  private void initializeNodesFromFurtherTraces(
+      final NodesFromTracePositionGenerator nodesFromTraceGenerator) {
+    final List<Trace> errorTraces = modelCheckingService.errorTracesProperty();
+    final String currentOperation = synthesisContextService.getCurrentOperation();
+    if (errorTraces.size() < 2 || currentOperation == null
+        || SynthesisType.ACTION.equals(synthesisContextService.getSynthesisType())) {
+      return;
+    }
+    for (final Trace trace : errorTraces.subList(1, errorTraces.size())) {
+      if (trace.getCurrentTransition() == null
+          || !currentOperation.equals(trace.getCurrentTransition().getName())) {
+        continue;
+      }
+      final StateNode violatingNode = createNodeFromTrace(trace, nodesFromTraceGenerator);
+      addNode(violatingNode);
+      if (!trace.canGoBack()) {
+        continue;
+      }
+      final StateNode predecessorNode =
+          createNodeFromTrace(trace.back(), nodesFromTraceGenerator);
+      predecessorNode.successorProperty().add(violatingNode);
+      violatingNode.predecessorProperty().add(predecessorNode);
+      addNode(predecessorNode);
+    }
+  }
+
+  private StateNode createNodeFromTrace(final Trace trace,
+                                        final NodesFromTracePositionGenerator generator) {
+    final State state = trace.getCurrentState();
+    final StateNode stateNode = stateNodeFactory.create(state, trace, state.isInvariantOk()
+            ? generator.getNextValidNodePosition() : generator.getNextInvalidNodePosition(),
+        getNodeState(state));
+    stateNode.stateFromModelCheckingProperty().set(true);
+    return stateNode;
+  }
+
   private void ignoreNonViolatingVarsIfNotDeadlock() {
     if (modelCheckingService.deadlockRepairProperty().get() != null) {
       return;
@@ -520,7 +876,7 @@ public class ValidationPane extends Pane implements Initializable {
             equivalentNode.highlightNodeEffect();
             return false;
           }
-          Platform.runLater(() -> nodes.add(node));
+          frameBatchedExecutor.execute(() -> nodes.add(node));
           addStateNodeAncestors(stateNode);
           return true;
         }
@@ -533,7 +889,7 @@ public class ValidationPane extends Pane implements Initializable {
       protected Boolean call() {
         final TransitionNode transitionNode = (TransitionNode) node;
         transitionNode.validateTransition();
-        Platform.runLater(() -> {
+        frameBatchedExecutor.execute(() -> {
           final TransitionNode equivalentNode = containsTransitionNode(transitionNode);
           if (equivalentNode == null) {
             nodes.add(node);
@@ -571,10 +927,10 @@ public class ValidationPane extends Pane implements Initializable {
    * Add a {@link NodeLine} to the validation pane.
    */
   private void addNodeConnection(final NodeLine nodeConnection) {
-    if (this.getChildren().contains(nodeConnection)) {
-      return;
-    }
-    Platform.runLater(() -> {
+    frameBatchedExecutor.execute(() -> {
+      if (this.getChildren().contains(nodeConnection)) {
+        return;
+      }
       this.getChildren().add(nodeConnection);
       nodeConnection.getSource().toFront();
       nodeConnection.getTarget().toFront();
@@ -603,33 +959,19 @@ public class ValidationPane extends Pane implements Initializable {
     if (synthesisContextService.getSynthesisType().isAction() || stateNode.getState() == null) {
       return null;
     }
-    final Optional<BasicNode> optionalNode = nodes.stream()
-        .filter(basicNode -> basicNode instanceof StateNode
-            && ((StateNode) basicNode).getState() != null
-            && !stateNode.equals(basicNode)
-            && stateNode.getState().getId().equals(((StateNode) basicNode).getState().getId()))
-        .findFirst();
-    return (StateNode) optionalNode.orElse(null);
+    return getEquivalentNode(stateNode, StateNode.class);
   }
 
   /**
-   * Check if the validation pane already contains a specific {@link StateNode}. Return the node if
-   * present otherwise return null.
+   * Check if the validation pane already contains a specific {@link TransitionNode}. Return the
+   * node if present otherwise return null.
    */
   private TransitionNode containsTransitionNode(final TransitionNode transitionNode) {
     if (!synthesisContextService.getSynthesisType().isAction()
         || transitionNode.getInputState() == null || transitionNode.getOutputState() == null) {
       return null;
     }
-    final Optional<BasicNode> optionalNode = nodes.stream()
-        .filter(basicNode -> !transitionNode.equals(basicNode)
-            && transitionNode.getInputState().getId()
-            .equals(((TransitionNode) basicNode).getInputState().getId())
-            && ((TransitionNode) basicNode).getOutputState() != null
-            && transitionNode.getOutputState().getId()
-            .equals(((TransitionNode) basicNode).getOutputState().getId()))
-        .findFirst();
-    return (TransitionNode) optionalNode.orElse(null);
+    return getEquivalentNode(transitionNode, TransitionNode.class);
   }
 
   public void expandAllNodes() {
@@ -641,7 +983,9 @@ public class ValidationPane extends Pane implements Initializable {
   }
 
   private boolean getExampleValidation(final BasicNode basicNode) {
-    return basicNode.getXPosition() + basicNode.getWidth() / 2 < ValidationPane.WIDTH / 2;
+    // nodes outside of the viewport might not have been laid out yet
+    final double width = basicNode.getWidth() > 0 ? basicNode.getWidth() : getNodeWidth(basicNode);
+    return basicNode.getXPosition() + width / 2 < ValidationPane.WIDTH / 2;
   }
 
   /**